@@ -0,0 +1,179 @@
+package com.loopins.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loopins.core.domain.enums.CartStatus;
+import com.loopins.core.dto.response.CartResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process near-cache of cart snapshots.
+ * Carts are indexed by cart ID, and active carts additionally by owner (user ID or guest session ID),
+ * so that repeated cart reads during browsing are served without a database round trip.
+ * Writes are applied only after the surrounding transaction commits.
+ * Each entry remembers the cart version it was stored at, and an evicted cart leaves a marker with
+ * its version, so a snapshot loaded before a later write or eviction is never cached over it.
+ * Entries expire a fixed time after they are written, which bounds how long another instance's
+ * changes can go unseen.
+ */
+@Component
+public class CartCache {
+
+    private final Cache<Long, Entry> cartsById;
+    private final Cache<String, Long> activeCartIdsByOwner;
+
+    public CartCache(MeterRegistry meterRegistry,
+                     @Value("${cart.cache.max-size:10000}") long maxSize,
+                     @Value("${cart.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cartsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.activeCartIdsByOwner = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cartsById, "carts");
+        CaffeineCacheMetrics.monitor(meterRegistry, activeCartIdsByOwner, "cart-owners");
+    }
+
+    public CartResponse get(Long cartId) {
+        Entry entry = cartsById.getIfPresent(cartId);
+        return entry != null ? entry.cart() : null;
+    }
+
+    public CartResponse getActiveByUserId(Long userId) {
+        return getActiveByOwner(userKey(userId));
+    }
+
+    public CartResponse getActiveBySessionId(String sessionId) {
+        return getActiveByOwner(sessionKey(sessionId));
+    }
+
+    /**
+     * Caches a snapshot loaded by a read, if it is newer than anything the cache has stored or evicted
+     * for the cart. A snapshot stored by a concurrent write is never overwritten.
+     */
+    public void populate(CartResponse cart) {
+        if (store(cart, false)) {
+            indexOwner(cart);
+        }
+    }
+
+    /**
+     * Replaces the cached snapshot of a cart once the current transaction commits, unless a newer
+     * snapshot is cached by then.
+     */
+    public void put(CartResponse cart) {
+        afterCommit(() -> {
+            if (store(cart, true)) {
+                indexOwner(cart);
+            }
+        });
+    }
+
+    /**
+     * Removes a cart from the cache once the current transaction commits. Snapshots at or below
+     * {@code version}, the version the evicting transaction read, are refused from then on;
+     * a null version refuses every snapshot until the marker expires.
+     */
+    public void evict(Long cartId, Long version) {
+        long evictedVersion = version != null ? version : Long.MAX_VALUE;
+        afterCommit(() -> {
+            AtomicReference<CartResponse> removed = new AtomicReference<>();
+            cartsById.asMap().compute(cartId, (id, existing) -> {
+                if (existing == null) {
+                    return Entry.evicted(evictedVersion);
+                }
+                removed.set(existing.cart());
+                return Entry.evicted(Math.max(existing.version(), evictedVersion));
+            });
+            CartResponse cart = removed.get();
+            if (cart != null && ownerKey(cart) != null) {
+                activeCartIdsByOwner.asMap().remove(ownerKey(cart), cartId);
+            }
+        });
+    }
+
+    private boolean store(CartResponse cart, boolean replaceSameVersion) {
+        long version = cart.getVersion() != null ? cart.getVersion() : 0L;
+        AtomicBoolean stored = new AtomicBoolean();
+        cartsById.asMap().compute(cart.getId(), (id, existing) -> {
+            boolean newer = existing == null
+                    || version > existing.version()
+                    || (replaceSameVersion && version == existing.version() && existing.cart() != null);
+            stored.set(newer);
+            return newer ? new Entry(version, cart) : existing;
+        });
+        return stored.get();
+    }
+
+    private CartResponse getActiveByOwner(String ownerKey) {
+        Long cartId = activeCartIdsByOwner.getIfPresent(ownerKey);
+        if (cartId == null) {
+            return null;
+        }
+        CartResponse cart = get(cartId);
+        return cart != null && cart.getStatus() == CartStatus.ACTIVE ? cart : null;
+    }
+    private void indexOwner(CartResponse cart) {
+        String ownerKey = ownerKey(cart);
+        if (ownerKey == null) {
+            return;
+        }
+        if (cart.getStatus() == CartStatus.ACTIVE) {
+            activeCartIdsByOwner.put(ownerKey, cart.getId());
+        } else {
+            activeCartIdsByOwner.asMap().remove(ownerKey, cart.getId());
+        }
+    }
+
+    private static String ownerKey(CartResponse cart) {
+        if (cart.getUserId() != null) {
+            return userKey(cart.getUserId());
+        }
+        return cart.getSessionId() != null ? sessionKey(cart.getSessionId()) : null;
+    }
+
+    private static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String sessionKey(String sessionId) {
+        return "session:" + sessionId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A cached snapshot and its version; an eviction marker has no snapshot.
+     */
+    private record Entry(long version, CartResponse cart) {
+
+        static Entry evicted(long version) {
+            return new Entry(version, null);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.loopins.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loopins.core.domain.entity.IdempotencyRecord;
+import com.loopins.core.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Completed responses of idempotent requests, kept in the database for the TTL
+ * and fronted by an in-memory LRU so that retries are answered without a query.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.cache.max-size:10000}") long maxSize) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "idempotency-responses");
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse cached = recent.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<StoredResponse> stored = repository.findByIdAndExpiresAtAfter(key, LocalDateTime.now())
+                .map(IdempotencyStore::toResponse);
+        stored.ifPresent(response -> recent.put(key, response));
+        return stored;
+    }
+
+    public void save(String key, StoredResponse response) {
+        recent.put(key, response);
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .id(key)
+                .requestHash(response.requestHash())
+                .statusCode(response.status())
+                .contentType(response.contentType())
+                .location(response.location())
+                .body(new String(response.body(), StandardCharsets.UTF_8))
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build();
+        try {
+            repository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            // The key is taken: either another instance stored its response first, which is kept,
+            // or an expired record has not been purged yet, which is replaced
+            if (repository.deleteExpiredById(key, LocalDateTime.now()) > 0) {
+                insertReplacing(record);
+            } else {
+                log.debug("Idempotency record {} already stored", key);
+            }
+        }
+    }
+
+    private void insertReplacing(IdempotencyRecord record) {
+        try {
+            repository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency record {} already stored", record.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}",
+            initialDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private static StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getStatusCode(), record.getContentType(),
+                record.getLocation(), record.getBody().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A completed response, together with the hash of the request body that produced it.
+     * The Location header is kept for responses that point at a created resource or a ticket.
+     */
+    public record StoredResponse(String requestHash, int status, String contentType, String location, byte[] body) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.loopins.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.client.dto.ShippingQuoteRequest;
+import com.loopins.core.client.dto.ShippingQuoteResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Cache of fulfillment shipping quotes keyed by route, courier and weight bucket.
+ * Weights are rounded up to the bucket boundary, so the quote is requested for the heaviest
+ * weight in the bucket. Concurrent misses for the same key share one remote call.
+ * Entries older than the TTL are still kept until max-stale: they are served (and refreshed in
+ * the background) while the fulfillment circuit breaker is open, or when a refresh fails.
+ * Only successful quotes are cached.
+ */
+@Slf4j
+@Component
+public class ShippingQuoteCache {
+
+    private static final String CIRCUIT_BREAKER = "fulfillment";
+
+    private final FulfillmentClient fulfillmentClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final Executor refreshExecutor;
+    private final long ttlNanos;
+    private final double weightBucketKg;
+
+    private final Cache<QuoteKey, CachedQuote> quotes;
+    private final Map<QuoteKey, CompletableFuture<ShippingQuoteResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Timer refreshTimer;
+
+    public ShippingQuoteCache(FulfillmentClient fulfillmentClient,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              @Qualifier("shippingQuoteRefreshExecutor") Executor refreshExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${fulfillment.shipping-quote-cache.ttl:1h}") Duration ttl,
+                              @Value("${fulfillment.shipping-quote-cache.max-stale:24h}") Duration maxStale,
+                              @Value("${fulfillment.shipping-quote-cache.max-size:10000}") long maxSize,
+                              @Value("${fulfillment.shipping-quote-cache.weight-bucket-kg:1.0}") double weightBucketKg) {
+        this.fulfillmentClient = fulfillmentClient;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlNanos = ttl.toNanos();
+        this.weightBucketKg = weightBucketKg;
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStale)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, quotes, "shipping-quotes");
+
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.refreshTimer = Timer.builder("shipping.quote.cache.refresh")
+                .description("Latency of remote shipping quote loads made by the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a quote for the request's route and weight bucket. An unsuccessful response is
+     * returned as-is (and not cached) when there is no cached quote to fall back to.
+     */
+    public ShippingQuoteResponse getQuote(ShippingQuoteRequest request) {
+        ShippingQuoteRequest bucketed = bucketed(request);
+        QuoteKey key = QuoteKey.of(bucketed);
+        CachedQuote cached = quotes.getIfPresent(key);
+
+        if (cached != null && cached.isFresh(ttlNanos)) {
+            hits.increment();
+            return cached.response();
+        }
+        if (cached != null && isCircuitOpen()) {
+            staleHits.increment();
+            refreshExecutor.execute(() -> load(key, bucketed));
+            return cached.response();
+        }
+
+        misses.increment();
+        ShippingQuoteResponse response;
+        try {
+            response = load(key, bucketed).join();
+        } catch (CompletionException e) {
+            if (cached == null) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+            response = null;
+        }
+        if ((response == null || !response.isSuccess()) && cached != null) {
+            log.warn("Shipping quote refresh failed for {}, serving stale quote", key);
+            staleHits.increment();
+            return cached.response();
+        }
+        return response;
+    }
+
+    // Collapses concurrent loads of the same key into one remote call
+    private CompletableFuture<ShippingQuoteResponse> load(QuoteKey key, ShippingQuoteRequest request) {
+        CompletableFuture<ShippingQuoteResponse> created = new CompletableFuture<>();
+        CompletableFuture<ShippingQuoteResponse> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            ShippingQuoteResponse response = fulfillmentClient.getShippingQuote(request);
+            if (response != null && response.isSuccess() && response.getPrice() != null) {
+                quotes.put(key, new CachedQuote(response, System.nanoTime()));
+            }
+            created.complete(response);
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+        } finally {
+            sample.stop(refreshTimer);
+            inFlight.remove(key, created);
+        }
+        return created;
+    }
+
+    private ShippingQuoteRequest bucketed(ShippingQuoteRequest request) {
+        double weight = request.getWeightInKg() != null ? request.getWeightInKg() : weightBucketKg;
+        double bucket = Math.max(1, Math.ceil(weight / weightBucketKg)) * weightBucketKg;
+        return ShippingQuoteRequest.builder()
+                .originCity(request.getOriginCity())
+                .destinationCity(request.getDestinationCity())
+                .weightInKg(bucket)
+                .courierCode(request.getCourierCode())
+                .build();
+    }
+
+    private boolean isCircuitOpen() {
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER).getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shipping.quote.cache.requests")
+                .description("Shipping quote lookups by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record QuoteKey(String originCity, String destinationCity, double weightBucketKg, String courierCode) {
+
+        static QuoteKey of(ShippingQuoteRequest request) {
+            return new QuoteKey(normalize(request.getOriginCity()), normalize(request.getDestinationCity()),
+                    request.getWeightInKg(), normalize(request.getCourierCode()));
+        }
+
+        private static String normalize(String value) {
+            return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
+    private record CachedQuote(ShippingQuoteResponse response, long fetchedAtNanos) {
+
+        boolean isFresh(long ttlNanos) {
+            return System.nanoTime() - fetchedAtNanos < ttlNanos;
+        }
+    }
+}
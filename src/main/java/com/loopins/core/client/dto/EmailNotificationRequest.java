@@ -1,11 +1,11 @@
 package com.loopins.core.client.dto;
 
+import com.loopins.core.domain.value.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -17,7 +17,7 @@ public class EmailNotificationRequest {
     private String orderId;
     private String recipientEmail;
     private String customerName;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String shippingAddress;
     private List<OrderItemDetail> items;
 
@@ -28,6 +28,6 @@ public class EmailNotificationRequest {
     public static class OrderItemDetail {
         private String productName;
         private Integer quantity;
-        private BigDecimal unitPrice;
+        private Money unitPrice;
     }
 }
@@ -1,11 +1,11 @@
 package com.loopins.core.client.dto;
 
+import com.loopins.core.domain.value.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -15,7 +15,7 @@ import java.util.List;
 public class PaymentInitiateRequest {
 
     private String orderId;
-    private BigDecimal amount;
+    private Money amount;
     private String currency;
     private String customerEmail;
     private String customerName;
@@ -31,7 +31,7 @@ public class PaymentInitiateRequest {
     public static class PaymentItem {
         private String productId;
         private String productName;
-        private BigDecimal unitPrice;
+        private Money unitPrice;
         private Integer quantity;
     }
 }
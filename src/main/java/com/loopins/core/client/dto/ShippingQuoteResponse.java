@@ -1,12 +1,11 @@
 package com.loopins.core.client.dto;
 
+import com.loopins.core.domain.value.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,7 +15,7 @@ public class ShippingQuoteResponse {
     private String courierCode;
     private String courierName;
     private String serviceType;
-    private BigDecimal price;
+    private Money price;
     private String estimatedDelivery;
     private boolean success;
     private String errorMessage;
@@ -0,0 +1,41 @@
+package com.loopins.core.config;
+
+import com.loopins.core.service.CartService;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes optimistic-lock conflicts on cart writes as metrics.
+ * Per-call outcomes are already published by resilience4j as {@code resilience4j.retry.calls};
+ * these counters add the raw conflict count so hot carts can be spotted.
+ */
+@Slf4j
+@Configuration
+public class CartRetryMetricsConfig {
+
+    public CartRetryMetricsConfig(RetryRegistry retryRegistry, MeterRegistry meterRegistry) {
+        Counter conflicts = Counter.builder("cart.write.conflicts")
+                .description("Cart writes that lost an optimistic-lock race and were retried")
+                .register(meterRegistry);
+        Counter exhausted = Counter.builder("cart.write.conflicts.exhausted")
+                .description("Cart writes that still conflicted after the last retry attempt")
+                .register(meterRegistry);
+
+        Retry retry = retryRegistry.retry(CartService.CART_WRITE_RETRY);
+        retry.getEventPublisher()
+                .onRetry(event -> {
+                    conflicts.increment();
+                    log.debug("Cart write conflict, attempt {}: {}",
+                            event.getNumberOfRetryAttempts(), event.getLastThrowable().getMessage());
+                })
+                .onError(event -> {
+                    exhausted.increment();
+                    log.warn("Cart write failed after {} attempts: {}",
+                            event.getNumberOfRetryAttempts(), event.getLastThrowable().getMessage());
+                });
+    }
+}
@@ -0,0 +1,80 @@
+package com.loopins.core.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for checkout stages that run off the request thread (remote calls only;
+     * JPA work stays on the request thread). When saturated, the caller runs the stage itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor checkoutExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${checkout.executor.core-pool-size:8}") int corePoolSize,
+            @Value("${checkout.executor.max-pool-size:32}") int maxPoolSize,
+            @Value("${checkout.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("checkout-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "checkout");
+        return executor;
+    }
+
+    /**
+     * Replaces Boot's default task executor, which backs off as soon as any other Executor bean exists.
+     * Runs MVC async work (SSE streams, streaming exports); without it Spring falls back to a
+     * thread-per-task executor with no bound. When saturated, new async requests are rejected.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.task.execution.pool.core-size:8}") int corePoolSize,
+            @Value("${spring.task.execution.pool.max-size:64}") int maxPoolSize,
+            @Value("${spring.task.execution.pool.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("task-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "application");
+        return executor;
+    }
+
+    /**
+     * Background refreshes of stale shipping quotes. A refresh that does not fit is dropped:
+     * the stale quote is still served and the next stale hit tries again, so a refresh never
+     * runs on the request thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor shippingQuoteRefreshExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${fulfillment.shipping-quote-cache.refresh-threads:2}") int threads,
+            @Value("${fulfillment.shipping-quote-cache.refresh-queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("shipping-quote-refresh-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "shipping-quote-refresh");
+        return executor;
+    }
+}
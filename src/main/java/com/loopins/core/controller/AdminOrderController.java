@@ -0,0 +1,122 @@
+package com.loopins.core.controller;
+
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.dto.response.ApiResponse;
+import com.loopins.core.dto.response.CursorPage;
+import com.loopins.core.dto.response.OrderSummaryRebuildResponse;
+import com.loopins.core.dto.response.OrderSummaryResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.service.OrderExportService;
+import com.loopins.core.service.OrderSummaryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/orders")
+@RequiredArgsConstructor
+@Tag(name = "Order Management (Admin)", description = "Admin APIs for order dashboards and reporting. Requires X-SERVICE-KEY header.")
+public class AdminOrderController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final OrderExportService orderExportService;
+    private final OrderSummaryService orderSummaryService;
+
+    // Applies to the export's streamed response only; other async requests keep the container default
+    @Value("${order.export.timeout:PT30M}")
+    private Duration exportTimeout;
+
+    @GetMapping
+    @Operation(
+        summary = "List orders by status",
+        description = "Returns a page of order summaries in the status, newest first. Pass nextCursor as cursor to get the next page."
+    )
+    public ResponseEntity<ApiResponse<CursorPage<OrderSummaryResponse>>> getOrdersByStatus(
+            @RequestParam OrderStatus status,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        log.info("GET /admin/orders - status: {}", status);
+        return ResponseEntity.ok(ApiResponse.success(orderSummaryService.getOrdersByStatus(status, cursor, size)));
+    }
+
+    @PostMapping("/summary/rebuild")
+    @Operation(
+        summary = "Rebuild order summaries",
+        description = "Regenerates the order list read model from the order tables in parallel chunks. Best run when order traffic is low."
+    )
+    public ResponseEntity<ApiResponse<OrderSummaryRebuildResponse>> rebuildOrderSummaries() {
+        log.info("POST /admin/orders/summary/rebuild");
+        OrderSummaryRebuildResponse response = orderSummaryService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success(response, "Order summaries rebuilt"));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export orders",
+        description = """
+            Streams orders created in the date range (inclusive) with their items, oldest first.
+            NDJSON writes one order per line; CSV writes one row per order item.
+            """
+    )
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "First creation date, e.g. 2024-05-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last creation date, e.g. 2024-05-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only orders in this status") @RequestParam(required = false) OrderStatus status,
+            HttpServletRequest request) {
+        log.info("GET /admin/orders/export - format: {}, from: {}, to: {}, status: {}", format, from, to, status);
+        OrderExportService.Format exportFormat = OrderExportService.Format.parse(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessException("'from' must not be after 'to'");
+        }
+
+        String filename = "orders" + (from != null ? "-" + from : "") + (to != null ? "-" + to : "")
+                + (exportFormat == OrderExportService.Format.CSV ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out -> orderExportService.export(exportFormat, from, to, status, out);
+        applyExportTimeout(request);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == OrderExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Sets the async timeout of this request's streamed response just before it starts.
+     */
+    private void applyExportTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor("orderExportTimeout",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                        if (asyncRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(exportTimeout.toMillis());
+                        }
+                    }
+                });
+    }
+}
@@ -1,9 +1,11 @@
 package com.loopins.core.controller;
 
 import com.loopins.core.dto.request.AddCartItemRequest;
+import com.loopins.core.dto.request.BatchCartItemRequest;
 import com.loopins.core.dto.request.CreateCartRequest;
 import com.loopins.core.dto.response.ApiResponse;
 import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.event.CartEventBroadcaster;
 import com.loopins.core.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,8 +17,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -26,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 public class CartController {
 
     private final CartService cartService;
+    private final CartEventBroadcaster cartEventBroadcaster;
 
     /**
      * Creates a new cart for a user or returns existing active cart.
@@ -57,19 +63,39 @@ public class CartController {
 
     /**
      * Gets a cart by ID with all items.
+     * Answers 304 Not Modified when the If-None-Match header matches the current ETag.
      */
     @GetMapping("/{cartId}")
     @Operation(
         summary = "Get cart by ID",
-        description = "Retrieves a cart with all its items by cart ID"
+        description = "Retrieves a cart with all its items by cart ID. Supports conditional requests via ETag / If-None-Match."
     )
     public ResponseEntity<ApiResponse<CartResponse>> getCart(
-            @Parameter(description = "Cart ID") @PathVariable Long cartId) {
+            @Parameter(description = "Cart ID") @PathVariable Long cartId,
+            WebRequest webRequest) {
         log.info("GET /carts/{}", cartId);
+        if (webRequest.checkNotModified(cartService.getCartETag(cartId))) {
+            return null;
+        }
         CartResponse cart = cartService.getCart(cartId);
         return ResponseEntity.ok(ApiResponse.success(cart));
     }
 
+    /**
+     * Streams changes to a cart as Server-Sent Events.
+     */
+    @GetMapping(path = "/{cartId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream cart changes",
+        description = "Opens a Server-Sent Events stream. Sends the current cart as a 'cart' event, then a new 'cart' event " +
+                "after every committed change, and a 'closed' event when the cart is checked out or merged."
+    )
+    public SseEmitter streamCartEvents(@Parameter(description = "Cart ID") @PathVariable Long cartId) {
+        log.info("GET /carts/{}/events", cartId);
+        CartResponse cart = cartService.getCart(cartId);
+        return cartEventBroadcaster.subscribe(cart);
+    }
+
     /**
      * Gets active cart for a user.
      */
@@ -146,6 +172,23 @@ public class CartController {
         return ResponseEntity.ok(ApiResponse.success(cart, "Item quantity updated"));
     }
 
+    /**
+     * Applies a batch of item operations to the cart in one transaction.
+     */
+    @PatchMapping("/{cartId}/items:batch")
+    @Operation(
+        summary = "Apply batch of item operations",
+        description = "Applies an ordered list of ADD/UPDATE/REMOVE operations keyed by product ID in a single transaction. " +
+                "Either all operations are applied or none."
+    )
+    public ResponseEntity<ApiResponse<CartResponse>> applyBatch(
+            @Parameter(description = "Cart ID") @PathVariable Long cartId,
+            @Valid @RequestBody BatchCartItemRequest request) {
+        log.info("PATCH /carts/{}/items:batch - {} operations", cartId, request.getOperations().size());
+        CartResponse cart = cartService.applyBatch(cartId, request);
+        return ResponseEntity.ok(ApiResponse.success(cart, "Cart items updated"));
+    }
+
     /**
      * Clears all items from the cart.
      */
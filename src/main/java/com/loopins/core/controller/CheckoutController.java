@@ -2,10 +2,15 @@ package com.loopins.core.controller;
 
 import com.loopins.core.dto.request.CheckoutRequest;
 import com.loopins.core.dto.response.ApiResponse;
+import com.loopins.core.dto.response.CheckoutQuoteResponse;
 import com.loopins.core.dto.response.CheckoutResponse;
+import com.loopins.core.dto.response.CheckoutTicketResponse;
+import com.loopins.core.service.AsyncCheckoutService;
 import com.loopins.core.service.CheckoutService;
+import com.loopins.core.web.IdempotencyFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Slf4j
 @RestController
@@ -25,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
+    private final AsyncCheckoutService asyncCheckoutService;
 
     /**
      * Performs checkout: validates cart, calculates shipping, creates order, initiates payment.
@@ -56,6 +63,8 @@ public class CheckoutController {
             description = "External service (shipping/payment) unavailable"
         )
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; repeats with the same key replay the first response")
     public ResponseEntity<ApiResponse<CheckoutResponse>> checkout(
             @Valid @RequestBody CheckoutRequest request) {
         log.info("POST /orders/checkout - cart: {}, user: {}",
@@ -66,6 +75,95 @@ public class CheckoutController {
                 .body(ApiResponse.success(response, "Checkout processed"));
     }
 
+    /**
+     * Computes checkout totals without creating an order.
+     */
+    @PostMapping("/checkout/quote")
+    @Operation(
+        summary = "Quote checkout",
+        description = """
+            Validates the cart and computes subtotal, shipping fee and total without creating anything.
+            Returns a short-lived quote token; passing it as quoteToken to POST /orders/checkout
+            with the same cart and shipping fields reuses the quoted shipping fee.
+            """
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Checkout quoted",
+            content = @Content(schema = @Schema(implementation = CheckoutQuoteResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid cart or checkout data"
+        )
+    })
+    public ResponseEntity<ApiResponse<CheckoutQuoteResponse>> quote(
+            @Valid @RequestBody CheckoutRequest request) {
+        log.info("POST /orders/checkout/quote - cart: {}, user: {}",
+                request.getCartId(), request.getUserId());
+        CheckoutQuoteResponse response = checkoutService.quote(request);
+        return ResponseEntity.ok(ApiResponse.success(response, "Checkout quoted"));
+    }
+
+    /**
+     * Validates and queues a checkout, answering immediately with a ticket to poll.
+     */
+    @PostMapping("/checkout/async")
+    @Operation(
+        summary = "Checkout cart asynchronously",
+        description = """
+            Validates the cart and queues the checkout for a checkout worker.
+            Returns 202 with a ticket; poll GET /orders/checkout/{ticket} for the result.
+            Returns 503 with Retry-After when the checkout queue is full.
+            """
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202",
+            description = "Checkout queued",
+            content = @Content(schema = @Schema(implementation = CheckoutTicketResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid cart or checkout data"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Checkout queue is full"
+        )
+    })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; repeats with the same key replay the first response")
+    public ResponseEntity<ApiResponse<CheckoutTicketResponse>> checkoutAsync(
+            @Valid @RequestBody CheckoutRequest request) {
+        log.info("POST /orders/checkout/async - cart: {}, user: {}",
+                request.getCartId(), request.getUserId());
+        CheckoutTicketResponse response = asyncCheckoutService.submit(request);
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/orders/checkout/{ticket}")
+                        .buildAndExpand(response.getTicket())
+                        .toUri())
+                .body(ApiResponse.success(response, "Checkout queued"));
+    }
+
+    /**
+     * Returns the progress of an asynchronous checkout, and its result once completed.
+     */
+    @GetMapping("/checkout/{ticket}")
+    @Operation(
+        summary = "Get asynchronous checkout status",
+        description = "Returns QUEUED, PROCESSING, COMPLETED with the checkout result, or FAILED with the error"
+    )
+    public ResponseEntity<ApiResponse<CheckoutTicketResponse>> getCheckoutTicket(
+            @Parameter(description = "Checkout ticket") @PathVariable String ticket) {
+        log.debug("GET /orders/checkout/{}", ticket);
+        CheckoutTicketResponse response = asyncCheckoutService.getTicket(ticket);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     /**
      * Retries payment initiation for an existing order.
      */
@@ -74,6 +172,8 @@ public class CheckoutController {
         summary = "Retry payment",
         description = "Retries payment initiation for an existing order that failed payment"
     )
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; repeats with the same key replay the first response")
     public ResponseEntity<ApiResponse<CheckoutResponse>> retryPayment(
             @Parameter(description = "Order ID") @PathVariable String orderId) {
         log.info("POST /orders/{}/retry-payment", orderId);
@@ -2,8 +2,11 @@ package com.loopins.core.controller;
 
 import com.loopins.core.dto.request.PaymentConfirmationRequest;
 import com.loopins.core.dto.response.ApiResponse;
+import com.loopins.core.dto.response.CursorPage;
 import com.loopins.core.dto.response.OrderResponse;
+import com.loopins.core.dto.response.OrderSummaryResponse;
 import com.loopins.core.service.OrderService;
+import com.loopins.core.service.OrderSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,11 +14,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -25,31 +26,43 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderSummaryService orderSummaryService;
 
     /**
      * Gets an order by ID.
+     * Answers 304 Not Modified when the If-None-Match header matches the current ETag.
      */
     @GetMapping("/{orderId}")
     @Operation(
         summary = "Get order by ID",
-        description = "Retrieves an order with all its items by order ID"
+        description = "Retrieves an order with all its items by order ID. Supports conditional requests via ETag / If-None-Match."
     )
     public ResponseEntity<ApiResponse<OrderResponse>> getOrder(
-            @Parameter(description = "Order ID (e.g., ORDER-XXXX)") @PathVariable String orderId) {
+            @Parameter(description = "Order ID (e.g., ORDER-XXXX)") @PathVariable String orderId,
+            WebRequest webRequest) {
         log.info("GET /orders/{}", orderId);
+        if (webRequest.checkNotModified(orderService.getOrderETag(orderId))) {
+            return null;
+        }
         OrderResponse order = orderService.getOrder(orderId);
         return ResponseEntity.ok(ApiResponse.success(order));
     }
 
     /**
-     * Gets orders for a user with pagination.
+     * Gets order summaries for a user, newest first, with cursor pagination.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<Page<OrderResponse>>> getOrdersByUser(
+    @Operation(
+        summary = "Get orders by user",
+        description = "Returns a page of summaries of the user's orders (status, total, item count), newest first. Pass nextCursor as cursor to get the next page; it is absent on the last page. Use GET /orders/{orderId} for an order's items."
+    )
+    public ResponseEntity<ApiResponse<CursorPage<OrderSummaryResponse>>> getOrdersByUser(
             @PathVariable Long userId,
-            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "10") int size) {
         log.info("GET /orders/user/{}", userId);
-        Page<OrderResponse> orders = orderService.getOrdersByUserId(userId, pageable);
+        CursorPage<OrderSummaryResponse> orders = orderSummaryService.getOrdersByUserId(userId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
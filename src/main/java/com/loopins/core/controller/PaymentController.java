@@ -3,8 +3,10 @@ package com.loopins.core.controller;
 import com.loopins.core.dto.response.ApiResponse;
 import com.loopins.core.dto.response.MidtransSnapResponse;
 import com.loopins.core.service.PaymentService;
+import com.loopins.core.web.IdempotencyFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +32,8 @@ public class PaymentController {
         summary = "Create Midtrans Snap payment",
         description = "Creates a Midtrans Snap payment token for QRIS and other payment methods"
     )
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; repeats with the same key replay the first response")
     public ResponseEntity<ApiResponse<MidtransSnapResponse>> createSnapPayment(
             @Parameter(description = "Order ID") @PathVariable String orderId) {
         log.info("POST /payments/snap/{}", orderId);
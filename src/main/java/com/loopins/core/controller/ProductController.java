@@ -75,6 +75,18 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(response, "Product status toggled"));
     }
 
+    @PatchMapping("/{id}/hot")
+    @Operation(
+        summary = "Flag a product for flash-sale handling",
+        description = "Hot products are reserved through an in-memory single-writer lane instead of row-level stock updates"
+    )
+    public ResponseEntity<ApiResponse<ProductResponse>> setHot(
+            @PathVariable String id,
+            @RequestParam boolean enabled) {
+        ProductResponse response = productService.setHot(id, enabled);
+        return ResponseEntity.ok(ApiResponse.success(response, "Product hot flag updated"));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a product by ID", description = "Permanently removes a product. Use toggle to just disable it.")
     public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable String id) {
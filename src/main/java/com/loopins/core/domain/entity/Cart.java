@@ -1,15 +1,17 @@
 package com.loopins.core.domain.entity;
 
 import com.loopins.core.domain.enums.CartStatus;
+import com.loopins.core.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "cart")
@@ -21,7 +23,8 @@ import java.util.List;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_id_seq")
+    @SequenceGenerator(name = "cart_id_seq", sequenceName = "cart_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,6 +43,28 @@ public class Cart {
     @Builder.Default
     private List<CartItem> items = new ArrayList<>();
 
+    // Running totals, maintained incrementally by the domain methods below
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private Money subtotal = Money.ZERO;
+
+    @Column(name = "item_count", nullable = false)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private Integer itemCount = 0;
+
+    // productId -> line, built lazily on first lookup and kept in sync by addItem/removeItem
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, CartItem> itemsByProductId;
+
+    // Optimistic lock; every item change also moves the running totals, so the cart row is always bumped
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -52,23 +77,84 @@ public class Cart {
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
+        if (itemsByProductId != null) {
+            itemsByProductId.put(item.getProductId(), item);
+        }
+        applyDelta(lineMinorUnits(item), item.getQuantity());
     }
 
     public void removeItem(CartItem item) {
-        items.remove(item);
+        if (items.remove(item)) {
+            applyDelta(-lineMinorUnits(item), -item.getQuantity());
+        }
+        if (itemsByProductId != null) {
+            itemsByProductId.remove(item.getProductId(), item);
+        }
         item.setCart(null);
     }
 
-    public BigDecimal calculateSubtotal() {
-        return items.stream()
-                .map(CartItem::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public void clearItems() {
+        items.clear();
+        itemsByProductId = null;
+        this.subtotal = Money.ZERO;
+        this.itemCount = 0;
+    }
+
+    /**
+     * Finds the line for a product, or null if the product is not in the cart.
+     * Constant time after the first call, which indexes the current items.
+     */
+    public CartItem findItemByProductId(String productId) {
+        if (itemsByProductId == null) {
+            itemsByProductId = new HashMap<>();
+            items.forEach(item -> itemsByProductId.putIfAbsent(item.getProductId(), item));
+        }
+        return itemsByProductId.get(productId);
+    }
+
+    /**
+     * Called by {@link CartItem} when the quantity of one of this cart's lines changes.
+     */
+    void onItemQuantityChanged(CartItem item, int quantityDelta) {
+        applyDelta(Math.multiplyExact(item.getUnitPrice().getMinorUnits(), (long) quantityDelta), quantityDelta);
+    }
+
+    /**
+     * Full recompute of the subtotal from the items. Used to verify the running total.
+     */
+    public Money calculateSubtotal() {
+        long minorUnits = 0;
+        for (CartItem item : items) {
+            minorUnits = Math.addExact(minorUnits, lineMinorUnits(item));
+        }
+        return Money.ofMinor(minorUnits);
     }
 
     public int getTotalItemCount() {
-        return items.stream()
+        return itemCount;
+    }
+
+    /**
+     * Whether the running totals match a full recompute over the items.
+     * Checked with {@code assert} after every change, so it only runs when assertions
+     * are enabled (e.g. under Surefire, which passes {@code -ea} by default).
+     */
+    public boolean hasConsistentTotals() {
+        int recomputedCount = items.stream()
                 .mapToInt(CartItem::getQuantity)
                 .sum();
+        return subtotal.equals(calculateSubtotal()) && itemCount == recomputedCount;
+    }
+
+    private void applyDelta(long minorUnitsDelta, int quantityDelta) {
+        this.subtotal = Money.ofMinor(Math.addExact(this.subtotal.getMinorUnits(), minorUnitsDelta));
+        this.itemCount += quantityDelta;
+        assert hasConsistentTotals() : "Running totals of cart " + id + " diverged from items";
+    }
+
+    // Line total without allocating; overflow-checked like Money#times
+    private static long lineMinorUnits(CartItem item) {
+        return Math.multiplyExact(item.getUnitPrice().getMinorUnits(), (long) item.getQuantity());
     }
 
     public boolean isEmpty() {
@@ -1,11 +1,11 @@
 package com.loopins.core.domain.entity;
 
+import com.loopins.core.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_id_seq")
+    @SequenceGenerator(name = "cart_item_id_seq", sequenceName = "cart_item_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,9 +33,10 @@ public class CartItem {
     private String productName;
 
     @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
     @Builder.Default
     private Integer quantity = 1;
 
@@ -47,23 +49,32 @@ public class CartItem {
     private LocalDateTime updatedAt;
 
     // Domain methods
-    public BigDecimal getLineTotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public Money getLineTotal() {
+        return unitPrice.times(quantity);
     }
 
     public void increaseQuantity(int amount) {
-        this.quantity += amount;
+        changeQuantity(this.quantity + amount);
     }
 
     public void decreaseQuantity(int amount) {
-        this.quantity = Math.max(0, this.quantity - amount);
+        changeQuantity(Math.max(0, this.quantity - amount));
     }
 
     public void updateQuantity(int newQuantity) {
         if (newQuantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
+        changeQuantity(newQuantity);
+    }
+
+    // Keeps the owning cart's running totals in sync
+    private void changeQuantity(int newQuantity) {
+        int delta = newQuantity - this.quantity;
         this.quantity = newQuantity;
+        if (cart != null && delta != 0) {
+            cart.onItemQuantityChanged(this, delta);
+        }
     }
 }
 
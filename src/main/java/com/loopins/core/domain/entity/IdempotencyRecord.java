@@ -0,0 +1,55 @@
+package com.loopins.core.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of a request made with an Idempotency-Key.
+ * The ID combines method, path and key, so the same key may be reused on different endpoints.
+ * Records are written once and never updated, so saving one is always a plain INSERT; a
+ * concurrent record for the same key surfaces as a constraint violation instead of being merged over.
+ */
+@Entity
+@Table(name = "idempotency_record")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 400)
+    private String id;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private Integer statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(length = 2048)
+    private String location;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -1,15 +1,16 @@
 package com.loopins.core.domain.entity;
 
 import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -21,6 +22,18 @@ import java.util.UUID;
 @Builder
 public class Order {
 
+    // Statuses each transition may start from; also enforced by the conditional updates in OrderRepository
+    public static final Set<OrderStatus> CONFIRMABLE_STATUSES = Set.of(OrderStatus.PAYMENT_PENDING);
+    public static final Set<OrderStatus> PAYMENT_INITIABLE_STATUSES = Set.of(
+            OrderStatus.DRAFT, OrderStatus.CREATED, OrderStatus.PAYMENT_FAILED);
+    // Statuses in which a payment settled at the gateway is still accepted
+    public static final Set<OrderStatus> PAYABLE_STATUSES = Set.of(
+            OrderStatus.DRAFT, OrderStatus.CREATED, OrderStatus.PAYMENT_PENDING, OrderStatus.PAYMENT_FAILED);
+    public static final Set<OrderStatus> CANCELLABLE_STATUSES = Set.of(
+            OrderStatus.DRAFT, OrderStatus.CREATED, OrderStatus.PAYMENT_PENDING, OrderStatus.PAYMENT_FAILED);
+    public static final Set<OrderStatus> SHIPPABLE_STATUSES = Set.of(OrderStatus.PAID);
+    public static final Set<OrderStatus> COMPLETABLE_STATUSES = Set.of(OrderStatus.SHIPPED);
+
     @Id
     @Column(length = 50)
     private String id;
@@ -50,15 +63,15 @@ public class Order {
 
     @Column(nullable = false, precision = 19, scale = 2)
     @Builder.Default
-    private BigDecimal subtotal = BigDecimal.ZERO;
+    private Money subtotal = Money.ZERO;
 
     @Column(name = "shipping_fee", nullable = false, precision = 19, scale = 2)
     @Builder.Default
-    private BigDecimal shippingFee = BigDecimal.ZERO;
+    private Money shippingFee = Money.ZERO;
 
     @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
     @Builder.Default
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private Money totalAmount = Money.ZERO;
 
     @Column(name = "shipping_address", columnDefinition = "TEXT")
     private String shippingAddress;
@@ -90,6 +103,7 @@ public class Order {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Fallback only; orders placed at checkout get their ID from OrderIdGenerator
     @PrePersist
     public void generateId() {
         if (this.id == null) {
@@ -104,10 +118,13 @@ public class Order {
     }
 
     public void calculateTotals() {
-        this.subtotal = items.stream()
-                .map(OrderItem::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        this.totalAmount = this.subtotal.add(this.shippingFee);
+        long subtotalMinorUnits = 0;
+        for (OrderItem item : items) {
+            subtotalMinorUnits = Math.addExact(subtotalMinorUnits,
+                    Math.multiplyExact(item.getUnitPrice().getMinorUnits(), (long) item.getQuantity()));
+        }
+        this.subtotal = Money.ofMinor(subtotalMinorUnits);
+        this.totalAmount = this.subtotal.plus(this.shippingFee);
     }
 
     public void markAsCreated() {
@@ -144,20 +161,23 @@ public class Order {
     }
 
     public boolean canBeConfirmed() {
-        return this.status == OrderStatus.PAYMENT_PENDING;
+        return CONFIRMABLE_STATUSES.contains(this.status);
     }
 
     public boolean canInitiatePayment() {
-        return this.status == OrderStatus.DRAFT
-            || this.status == OrderStatus.CREATED
-            || this.status == OrderStatus.PAYMENT_FAILED;
+        return PAYMENT_INITIABLE_STATUSES.contains(this.status);
     }
 
     public boolean canBeCancelled() {
-        return this.status == OrderStatus.DRAFT
-            || this.status == OrderStatus.CREATED
-            || this.status == OrderStatus.PAYMENT_PENDING
-            || this.status == OrderStatus.PAYMENT_FAILED;
+        return CANCELLABLE_STATUSES.contains(this.status);
+    }
+
+    public boolean canBeShipped() {
+        return SHIPPABLE_STATUSES.contains(this.status);
+    }
+
+    public boolean canBeCompleted() {
+        return COMPLETABLE_STATUSES.contains(this.status);
     }
 
     public boolean isPaid() {
@@ -1,10 +1,10 @@
 package com.loopins.core.domain.entity;
 
+import com.loopins.core.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_id_seq")
+    @SequenceGenerator(name = "order_item_id_seq", sequenceName = "order_item_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -31,7 +32,7 @@ public class OrderItem {
     private String productName;
 
     @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @Column(nullable = false)
     private Integer quantity;
@@ -41,8 +42,8 @@ public class OrderItem {
     private LocalDateTime createdAt;
 
     // Domain methods
-    public BigDecimal getLineTotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public Money getLineTotal() {
+        return unitPrice.times(quantity);
     }
 
     /**
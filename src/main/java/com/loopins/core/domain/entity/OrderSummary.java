@@ -0,0 +1,49 @@
+package com.loopins.core.domain.entity;
+
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized row of the order list read model.
+ * Written with plain SQL by {@link com.loopins.core.service.OrderSummaryProjector}; read-only for JPA.
+ */
+@Entity
+@Immutable
+@Table(name = "order_summary")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id", length = 50)
+    private String orderId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "guest_email")
+    private String guestEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private Money totalAmount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class PaymentCallbackLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_callback_log_id_seq")
+    @SequenceGenerator(name = "payment_callback_log_id_seq", sequenceName = "payment_callback_log_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_id", nullable = false, length = 50)
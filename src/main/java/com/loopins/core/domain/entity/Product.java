@@ -1,10 +1,10 @@
 package com.loopins.core.domain.entity;
 
+import com.loopins.core.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -23,7 +23,7 @@ public class Product {
     private String name;
 
     @Column(name = "price", nullable = false, precision = 19, scale = 2)
-    private BigDecimal price;
+    private Money price;
 
     @Column(name = "stock", nullable = false)
     private Integer stock;
@@ -31,6 +31,11 @@ public class Product {
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
+    // Reserved through HotSkuLanes instead of row-level updates while set
+    @Column(name = "hot", nullable = false)
+    @Builder.Default
+    private Boolean hot = false;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
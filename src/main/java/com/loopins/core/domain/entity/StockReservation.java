@@ -0,0 +1,57 @@
+package com.loopins.core.domain.entity;
+
+import com.loopins.core.domain.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock held for one product of an order between checkout and payment.
+ * A HELD reservation has already been subtracted from {@link Product#getStock()}.
+ */
+@Entity
+@Table(name = "stock_reservation")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_id_seq")
+    @SequenceGenerator(name = "stock_reservation_id_seq", sequenceName = "stock_reservation_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, length = 50)
+    private String orderId;
+
+    @Column(name = "product_id", nullable = false, length = 100)
+    private String productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public boolean isHeld() {
+        return status == ReservationStatus.HELD;
+    }
+}
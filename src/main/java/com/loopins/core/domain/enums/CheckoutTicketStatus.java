@@ -0,0 +1,11 @@
+package com.loopins.core.domain.enums;
+
+/**
+ * Progress of an asynchronous checkout.
+ */
+public enum CheckoutTicketStatus {
+    QUEUED,     // Accepted and waiting for a checkout worker
+    PROCESSING, // A worker is running the checkout
+    COMPLETED,  // Checkout finished, the response is available
+    FAILED      // Checkout was rejected or failed, see the error
+}
@@ -0,0 +1,10 @@
+package com.loopins.core.domain.enums;
+
+/**
+ * Stock reservation status enum.
+ */
+public enum ReservationStatus {
+    HELD,       // Stock subtracted and held for an unpaid order
+    CONSUMED,   // Order paid, the hold became a sale
+    RELEASED    // Hold expired or order cancelled, stock returned
+}
@@ -0,0 +1,105 @@
+package com.loopins.core.domain.value;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable monetary amount held as a {@code long} count of minor units (1/100 of the major unit).
+ * Arithmetic is exact integer arithmetic and throws {@link ArithmeticException} on overflow.
+ * Stored in the existing NUMERIC(19, 2) columns through {@link MoneyConverter}
+ * and serialized to JSON as a plain decimal number.
+ */
+@Immutable
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    private static final long MINOR_UNITS_PER_MAJOR = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_UNITS_PER_MAJOR));
+    }
+
+    /**
+     * Converts a decimal amount, rounding half-up to two decimal places.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Whole major units, truncating any fraction (IDR amounts have none in practice).
+     */
+    public long toMajorUnits() {
+        return minorUnits / MINOR_UNITS_PER_MAJOR;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long multiplier) {
+        return ofMinor(Math.multiplyExact(minorUnits, multiplier));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
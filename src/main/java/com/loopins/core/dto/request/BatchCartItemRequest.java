@@ -0,0 +1,46 @@
+package com.loopins.core.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCartItemRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 500, message = "A batch may contain at most 500 operations")
+    private List<@Valid Operation> operations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        @NotBlank(message = "Product ID is required")
+        private String productId;
+
+        // Required for ADD (at least 1) and UPDATE (0 removes the item), ignored for REMOVE
+        private Integer quantity;
+    }
+
+    public enum OperationType {
+        ADD,    // Adds the product, or increases quantity if already in cart
+        UPDATE, // Sets the quantity of a product already in cart
+        REMOVE  // Removes a product from cart
+    }
+}
@@ -35,5 +35,8 @@ public class CheckoutRequest {
     // Bypass flags for testing/development
     private Boolean bypassShipping; // If true, uses default shipping fee instead of calling fulfillment service
     private Boolean bypassPayment; // If true, skips payment initiation (for testing order creation only)
+
+    // Optional - token from POST /orders/checkout/quote; a valid token skips the shipping quote
+    private String quoteToken;
 }
 
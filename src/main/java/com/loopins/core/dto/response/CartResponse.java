@@ -23,6 +23,7 @@ public class CartResponse {
     private List<CartItemResponse> items;
     private BigDecimal subtotal;
     private int totalItems;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,23 @@
+package com.loopins.core.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutQuoteResponse {
+
+    private Long cartId;
+    private BigDecimal subtotal;
+    private BigDecimal shippingFee;
+    private BigDecimal totalAmount;
+    private String quoteToken;
+    private Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.loopins.core.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.loopins.core.domain.enums.CheckoutTicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CheckoutTicketResponse {
+
+    private String ticket;
+    private Long cartId;
+    private CheckoutTicketStatus status;
+    private CheckoutResponse checkout;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
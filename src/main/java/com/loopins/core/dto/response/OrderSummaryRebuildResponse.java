@@ -0,0 +1,17 @@
+package com.loopins.core.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryRebuildResponse {
+
+    private long orders;
+    private int chunks;
+    private long elapsedMillis;
+}
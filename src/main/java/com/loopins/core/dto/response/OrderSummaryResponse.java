@@ -0,0 +1,26 @@
+package com.loopins.core.dto.response;
+
+import com.loopins.core.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+
+    private String orderId;
+    private Long userId;
+    private String guestEmail;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
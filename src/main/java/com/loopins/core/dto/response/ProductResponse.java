@@ -18,6 +18,7 @@ public class ProductResponse {
     private BigDecimal price;
     private Integer stock;
     private Boolean active;
+    private Boolean hot;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
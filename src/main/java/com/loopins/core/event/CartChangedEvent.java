@@ -0,0 +1,26 @@
+package com.loopins.core.event;
+
+import com.loopins.core.dto.response.CartResponse;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by cart mutations; delivered to subscribers once the transaction commits.
+ * {@code cart} is null when the cart was closed (checked out or merged into a user cart).
+ */
+@Getter
+public class CartChangedEvent extends ApplicationEvent {
+
+    private final Long cartId;
+    private final CartResponse cart;
+
+    public CartChangedEvent(Object source, Long cartId, CartResponse cart) {
+        super(source);
+        this.cartId = cartId;
+        this.cart = cart;
+    }
+
+    public boolean isClosed() {
+        return cart == null;
+    }
+}
@@ -0,0 +1,248 @@
+package com.loopins.core.event;
+
+import com.loopins.core.dto.response.CartResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fans committed cart changes out to Server-Sent Event subscribers of the same cart.
+ * Subscriptions are held in memory per instance; sends run on a small dedicated pool
+ * so a slow client never holds up the request that changed the cart.
+ * Each subscriber is drained by at most one pool thread at a time and holds only its newest
+ * pending update, so events reach it in version order, updates superseded while it was busy
+ * are skipped, and a slow client occupies no more than one thread and one queue slot.
+ */
+@Slf4j
+@Component
+public class CartEventBroadcaster {
+
+    private final Map<Long, Set<Subscriber>> subscribersByCartId = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ThreadPoolExecutor fanOutExecutor;
+    private final long timeoutMillis;
+
+    private final Timer fanOutTimer;
+    private final Counter failedSends;
+    private final Counter droppedSubscribers;
+
+    public CartEventBroadcaster(MeterRegistry meterRegistry,
+                                @Value("${cart.events.timeout:30m}") Duration timeout,
+                                @Value("${cart.events.fan-out-threads:4}") int fanOutThreads,
+                                @Value("${cart.events.queue-capacity:1000}") int queueCapacity) {
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cart-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("cart.events.connections", connections, AtomicInteger::get)
+                .description("Open cart event streams")
+                .register(meterRegistry);
+        this.fanOutTimer = Timer.builder("cart.events.fanout")
+                .description("Time from commit until a cart change was sent to a subscriber")
+                .register(meterRegistry);
+        this.failedSends = Counter.builder("cart.events.send.failures")
+                .description("Cart event sends that failed and dropped the subscriber")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("cart.events.overflow")
+                .description("Subscribers closed because the fan-out queue was full; clients reconnect for a fresh snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream for a cart and sends the current snapshot as the first event.
+     */
+    public SseEmitter subscribe(CartResponse cart) {
+        Long cartId = cart.getId();
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(cartId, emitter);
+        subscribersByCartId.compute(cartId, (id, subscribers) -> {
+            Set<Subscriber> cartSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            cartSubscribers.add(subscriber);
+            return cartSubscribers;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        offer(subscriber, new Update(cart.getVersion(), false, () -> cartEvent(cart), null));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCartChanged(CartChangedEvent event) {
+        Set<Subscriber> subscribers = subscribersByCartId.get(event.getCartId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Update update = event.isClosed()
+                ? new Update(null, true, () -> SseEmitter.event().name("closed").data(event.getCartId()), sample)
+                : new Update(event.getCart().getVersion(), false, () -> cartEvent(event.getCart()), sample);
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, update);
+        }
+    }
+
+    /**
+     * Keeps idle streams alive through proxies and detects disconnected clients.
+     */
+    @Scheduled(fixedRateString = "${cart.events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        subscribersByCartId.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> send(subscriber, () -> SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        subscribersByCartId.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void offer(Subscriber subscriber, Update update) {
+        subscriber.pending.accumulateAndGet(update, Update::newer);
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            // The thread draining this subscriber picks the update up
+            return;
+        }
+        try {
+            fanOutExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            droppedSubscribers.increment();
+            log.warn("Cart event queue full, closing a subscriber of cart {}", subscriber.cartId);
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Update update;
+            while ((update = subscriber.pending.getAndSet(null)) != null) {
+                if (subscriber.closed || update.isNotAfter(subscriber.lastSentVersion)) {
+                    continue;
+                }
+                if (!send(subscriber, update.event)) {
+                    subscriber.closed = true;
+                    continue;
+                }
+                if (update.sample != null) {
+                    update.sample.stop(fanOutTimer);
+                }
+                if (update.version != null) {
+                    subscriber.lastSentVersion = update.version;
+                }
+                if (update.closed) {
+                    subscriber.closed = true;
+                    subscriber.emitter.complete();
+                }
+            }
+            subscriber.draining.set(false);
+            // An update offered after the last poll but before the flag was cleared has no drain scheduled
+        } while (subscriber.pending.get() != null && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // Event builders are single-use, so each send builds its own
+    private boolean send(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            subscriber.emitter.send(event.get());
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            failedSends.increment();
+            log.debug("Dropping cart {} event subscriber: {}", subscriber.cartId, e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByCartId.computeIfPresent(subscriber.cartId, (id, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder cartEvent(CartResponse cart) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("cart").data(cart);
+        return cart.getVersion() != null ? event.id(String.valueOf(cart.getVersion())) : event;
+    }
+
+    /**
+     * One open stream. {@code lastSentVersion} and {@code closed} are only touched by the thread
+     * holding {@code draining}, which hands them over to the next drain through the flag.
+     */
+    private static final class Subscriber {
+
+        private final Long cartId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Update> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long lastSentVersion = -1;
+        private boolean closed;
+
+        private Subscriber(Long cartId, SseEmitter emitter) {
+            this.cartId = cartId;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * An event waiting to be sent; {@code version} is null when the cart has none (closed carts).
+     */
+    private record Update(Long version, boolean closed, Supplier<SseEmitter.SseEventBuilder> event,
+                          Timer.Sample sample) {
+
+        // A close supersedes everything; otherwise the higher version wins
+        private static Update newer(Update current, Update offered) {
+            if (current == null || offered.closed) {
+                return offered;
+            }
+            if (current.closed || current.version == null || offered.version == null) {
+                return current.closed ? current : offered;
+            }
+            return offered.version >= current.version ? offered : current;
+        }
+
+        private boolean isNotAfter(long lastSentVersion) {
+            return !closed && version != null && version <= lastSentVersion;
+        }
+    }
+}
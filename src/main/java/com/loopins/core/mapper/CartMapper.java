@@ -2,11 +2,13 @@ package com.loopins.core.mapper;
 
 import com.loopins.core.domain.entity.Cart;
 import com.loopins.core.domain.entity.CartItem;
+import com.loopins.core.domain.value.Money;
 import com.loopins.core.dto.response.CartItemResponse;
 import com.loopins.core.dto.response.CartResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -14,13 +16,17 @@ public interface CartMapper {
 
     @Mapping(target = "userId", source = "user.id")
     @Mapping(target = "sessionId", source = "sessionId")
-    @Mapping(target = "subtotal", expression = "java(cart.calculateSubtotal())")
-    @Mapping(target = "totalItems", expression = "java(cart.getTotalItemCount())")
+    @Mapping(target = "subtotal", source = "subtotal")
+    @Mapping(target = "totalItems", source = "itemCount")
     CartResponse toResponse(Cart cart);
 
-    @Mapping(target = "lineTotal", expression = "java(cartItem.getLineTotal())")
+    @Mapping(target = "lineTotal", expression = "java(cartItem.getLineTotal().toBigDecimal())")
     CartItemResponse toResponse(CartItem cartItem);
 
     List<CartItemResponse> toResponseList(List<CartItem> items);
+
+    default BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
 }
 
@@ -2,11 +2,15 @@ package com.loopins.core.mapper;
 
 import com.loopins.core.domain.entity.Order;
 import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.entity.OrderSummary;
+import com.loopins.core.domain.value.Money;
 import com.loopins.core.dto.response.OrderItemResponse;
 import com.loopins.core.dto.response.OrderResponse;
+import com.loopins.core.dto.response.OrderSummaryResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -15,9 +19,15 @@ public interface OrderMapper {
     @Mapping(target = "userId", source = "user.id")
     OrderResponse toResponse(Order order);
 
-    @Mapping(target = "lineTotal", expression = "java(orderItem.getLineTotal())")
+    @Mapping(target = "lineTotal", expression = "java(orderItem.getLineTotal().toBigDecimal())")
     OrderItemResponse toResponse(OrderItem orderItem);
 
     List<OrderItemResponse> toResponseList(List<OrderItem> items);
+
+    OrderSummaryResponse toSummaryResponse(OrderSummary summary);
+
+    default BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
 }
 
@@ -2,6 +2,9 @@ package com.loopins.core.repository;
 
 import com.loopins.core.domain.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,5 +20,9 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     void deleteByCartId(Long cartId);
 
     boolean existsByCartIdAndProductId(Long cartId, String productId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN :cartIds")
+    int deleteAllByCartIdIn(@Param("cartIds") List<Long> cartIds);
 }
 
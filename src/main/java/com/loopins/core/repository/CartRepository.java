@@ -2,11 +2,17 @@ package com.loopins.core.repository;
 
 import com.loopins.core.domain.entity.Cart;
 import com.loopins.core.domain.enums.CartStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -27,8 +33,35 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.sessionId = :sessionId AND c.status = :status")
     Optional<Cart> findBySessionIdAndStatus(@Param("sessionId") String sessionId, @Param("status") CartStatus status);
 
+    @Query("SELECT c.version FROM Cart c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     boolean existsByUserIdAndStatus(Long userId, CartStatus status);
 
     boolean existsBySessionIdAndStatus(String sessionId, CartStatus status);
+
+    /**
+     * Next keyset page of guest carts idle since before the cutoff that no order refers to.
+     */
+    @Query(value = """
+            SELECT c.id FROM cart c
+            WHERE c.user_id IS NULL
+              AND c.updated_at < :idleBefore
+              AND c.id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.cart_id = c.id)
+            ORDER BY c.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findAbandonedGuestCartIds(@Param("idleBefore") LocalDateTime idleBefore,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * Locks the given carts if they are still idle guest carts, skipping rows a concurrent writer holds.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c FROM Cart c WHERE c.id IN :ids AND c.user IS NULL AND c.updatedAt < :idleBefore")
+    List<Cart> lockAbandonedGuestCarts(@Param("ids") List<Long> ids, @Param("idleBefore") LocalDateTime idleBefore);
 }
 
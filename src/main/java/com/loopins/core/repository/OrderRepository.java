@@ -2,13 +2,14 @@ package com.loopins.core.repository;
 
 import com.loopins.core.domain.entity.Order;
 import com.loopins.core.domain.enums.OrderStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,12 +19,74 @@ public interface OrderRepository extends JpaRepository<Order, String> {
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
     Optional<Order> findByIdWithItems(@Param("id") String id);
 
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items LEFT JOIN FETCH o.user WHERE o.id = :id")
+    Optional<Order> findByIdWithItemsAndUser(@Param("id") String id);
+
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") String id);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") String id);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status")
+    List<String> findIdsByIdInAndStatus(@Param("ids") Collection<String> ids, @Param("status") OrderStatus status);
+
+    /**
+     * Compare-and-set status change: one UPDATE that only matches while the order is in one of the
+     * allowed statuses. Returns 0 when the order is missing or in another status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.id = :id AND o.status IN :allowed")
+    int transitionStatus(@Param("id") String id,
+                         @Param("allowed") Collection<OrderStatus> allowed,
+                         @Param("status") OrderStatus status,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Compare-and-set transition to PAID that also requires the expected payment reference.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.loopins.core.domain.enums.OrderStatus.PAID, o.paidAt = :now, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status IN :allowed AND o.paymentReference = :paymentReference")
+    int markPaid(@Param("id") String id,
+                 @Param("allowed") Collection<OrderStatus> allowed,
+                 @Param("paymentReference") String paymentReference,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Compare-and-set transition to PAID for a payment reported by the gateway, which identifies
+     * the order by its ID only.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.loopins.core.domain.enums.OrderStatus.PAID, o.paidAt = :now, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status IN :allowed")
+    int markPaid(@Param("id") String id,
+                 @Param("allowed") Collection<OrderStatus> allowed,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Compare-and-set transition to SHIPPED, stamping the ship time.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.loopins.core.domain.enums.OrderStatus.SHIPPED, o.shippedAt = :now, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status IN :allowed")
+    int markShipped(@Param("id") String id,
+                    @Param("allowed") Collection<OrderStatus> allowed,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Compare-and-set transition to COMPLETED, stamping the completion time.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.loopins.core.domain.enums.OrderStatus.COMPLETED, o.completedAt = :now, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status IN :allowed")
+    int markCompleted(@Param("id") String id,
+                      @Param("allowed") Collection<OrderStatus> allowed,
+                      @Param("now") LocalDateTime now);
+
     @Query(value = "SELECT COUNT(*) FROM order_item WHERE order_id = :orderId", nativeQuery = true)
     int countItemsByOrderId(@Param("orderId") String orderId);
 
-    @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC")
-    Page<Order> findByUserId(@Param("userId") Long userId, Pageable pageable);
-
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.status = :status ORDER BY o.createdAt DESC")
     List<Order> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status);
 
@@ -0,0 +1,41 @@
+package com.loopins.core.repository;
+
+import com.loopins.core.domain.entity.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset-paginated reads of the order list read model, newest first.
+ * The "after" queries continue from a (created_at, order_id) position with a row comparison,
+ * so every page is one range scan of the matching index.
+ */
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, String> {
+
+    @Query(value = "SELECT * FROM order_summary WHERE user_id = :userId "
+            + "ORDER BY created_at DESC, order_id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findFirstPageByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_summary WHERE user_id = :userId AND (created_at, order_id) < (:createdAt, :orderId) "
+            + "ORDER BY created_at DESC, order_id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findPageByUserIdAfter(@Param("userId") Long userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("orderId") String orderId,
+                                             @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_summary WHERE status = :status "
+            + "ORDER BY created_at DESC, order_id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findFirstPageByStatus(@Param("status") String status, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_summary WHERE status = :status AND (created_at, order_id) < (:createdAt, :orderId) "
+            + "ORDER BY created_at DESC, order_id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findPageByStatusAfter(@Param("status") String status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("orderId") String orderId,
+                                             @Param("limit") int limit);
+}
@@ -2,11 +2,26 @@ package com.loopins.core.repository;
 
 import com.loopins.core.domain.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, String> {
     Optional<Product> findByIdAndActiveTrue(String id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.hot = true")
+    List<String> findHotProductIds();
+
+    /**
+     * Adds delta to the stock unless that would take it below zero. Returns the number of rows updated.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.updatedAt = LOCAL DATETIME "
+            + "WHERE p.id = :id AND p.stock + :delta >= 0")
+    int adjustStock(@Param("id") String id, @Param("delta") int delta);
 }
@@ -0,0 +1,75 @@
+package com.loopins.core.repository;
+
+import com.loopins.core.domain.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Locks every reservation of an order, waiting for a concurrent sweeper or cancellation.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId ORDER BY r.productId")
+    List<StockReservation> lockByOrderId(@Param("orderId") String orderId);
+
+    /**
+     * Finds the first orders holding expired reservations that have not been paid, oldest hold first.
+     */
+    @Query(value = """
+            SELECT DISTINCT r.order_id AS orderId, r.expires_at AS expiresAt FROM stock_reservation r
+            JOIN orders o ON o.id = r.order_id
+            WHERE r.status = 'HELD' AND r.expires_at < :now
+              AND o.status NOT IN ('PAID', 'SHIPPED', 'COMPLETED')
+            ORDER BY r.expires_at, r.order_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ExpiredHold> findExpiredHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Continues {@link #findExpiredHolds} after the last hold of the previous chunk, so holds skipped
+     * because they were locked are not read again in the same run.
+     */
+    @Query(value = """
+            SELECT DISTINCT r.order_id AS orderId, r.expires_at AS expiresAt FROM stock_reservation r
+            JOIN orders o ON o.id = r.order_id
+            WHERE r.status = 'HELD' AND r.expires_at < :now
+              AND (r.expires_at, r.order_id) > (:afterExpiresAt, :afterOrderId)
+              AND o.status NOT IN ('PAID', 'SHIPPED', 'COMPLETED')
+            ORDER BY r.expires_at, r.order_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ExpiredHold> findExpiredHoldsAfter(@Param("now") LocalDateTime now,
+                                            @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                            @Param("afterOrderId") String afterOrderId,
+                                            @Param("limit") int limit);
+
+    /**
+     * Locks the expired holds of the given orders, skipping rows a concurrent payment confirmation holds.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN :orderIds "
+            + "AND r.status = com.loopins.core.domain.enums.ReservationStatus.HELD AND r.expiresAt < :now")
+    List<StockReservation> lockExpiredHolds(@Param("orderIds") List<String> orderIds, @Param("now") LocalDateTime now);
+
+    /**
+     * An order with an expired hold, and the expiry the sweeper pages by.
+     */
+    interface ExpiredHold {
+
+        String getOrderId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,103 @@
+package com.loopins.core.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signs and verifies checkout quote tokens with HMAC-SHA256.
+ * A token is {@code base64url(claims) + "." + base64url(signature)}; it carries the quoted
+ * shipping fee so that a checkout presenting it can skip the shipping quote.
+ * Without a configured secret a random one is generated, and tokens are only accepted by
+ * the instance that issued them.
+ */
+@Slf4j
+@Component
+public class QuoteTokenSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    public QuoteTokenSigner(@Value("${checkout.quote.secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("checkout.quote.secret is not set; quote tokens will only be accepted by this instance");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String sign(QuoteClaims claims) {
+        byte[] payload = claims.serialize().getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(mac(payload));
+    }
+
+    /**
+     * Returns the claims of a well-formed, correctly signed, unexpired token.
+     */
+    public Optional<QuoteClaims> verify(String token, Instant now) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(mac(payload), signature)) {
+                return Optional.empty();
+            }
+            QuoteClaims claims = QuoteClaims.parse(new String(payload, StandardCharsets.UTF_8));
+            return claims.expiresAt() > now.getEpochSecond() ? Optional.of(claims) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * What a quote token vouches for.
+     *
+     * @param shippingKey fingerprint of the shipping inputs the fee was quoted for
+     * @param expiresAt   epoch second after which the token is rejected
+     */
+    public record QuoteClaims(long cartId, long shippingFeeMinorUnits, String shippingKey, long expiresAt) {
+
+        private String serialize() {
+            return cartId + "|" + shippingFeeMinorUnits + "|" + shippingKey + "|" + expiresAt;
+        }
+
+        private static QuoteClaims parse(String payload) {
+            String[] parts = payload.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed quote token");
+            }
+            return new QuoteClaims(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2],
+                    Long.parseLong(parts[3]));
+        }
+    }
+}
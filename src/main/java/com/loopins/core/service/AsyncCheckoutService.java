@@ -0,0 +1,263 @@
+package com.loopins.core.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loopins.core.domain.enums.CheckoutTicketStatus;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.dto.response.CheckoutResponse;
+import com.loopins.core.dto.response.CheckoutTicketResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.exception.ExternalServiceException;
+import com.loopins.core.exception.ResourceNotFoundException;
+import com.loopins.core.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in asynchronous checkout. Requests are validated on the request thread, queued, and run
+ * by checkout workers that are sized separately from the HTTP thread pool.
+ * The queue is partitioned by cart ID, each partition with one worker and a bounded queue,
+ * so checkouts of the same cart run one after another. When a partition's queue is full the
+ * request is rejected with 503 instead of waiting.
+ * Tickets are kept in memory on the instance that accepted the checkout: queued and running
+ * tickets until they finish, finished tickets for the ticket TTL.
+ */
+@Slf4j
+@Service
+public class AsyncCheckoutService {
+
+    private final CheckoutService checkoutService;
+    private final OrderPlacementService orderPlacementService;
+    private final List<ThreadPoolExecutor> partitions;
+    private final Map<String, Ticket> activeTickets = new ConcurrentHashMap<>();
+    private final Cache<String, Ticket> finishedTickets;
+    private final Duration retryAfter;
+    private final Duration shutdownTimeout;
+
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Counter completed;
+    private final Counter failed;
+
+    public AsyncCheckoutService(CheckoutService checkoutService,
+                                OrderPlacementService orderPlacementService,
+                                MeterRegistry meterRegistry,
+                                @Value("${checkout.async.partitions:4}") int partitionCount,
+                                @Value("${checkout.async.queue-capacity:250}") int queueCapacity,
+                                @Value("${checkout.async.ticket-ttl:1h}") Duration ticketTtl,
+                                @Value("${checkout.async.retry-after:PT5S}") Duration retryAfter,
+                                @Value("${checkout.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.checkoutService = checkoutService;
+        this.orderPlacementService = orderPlacementService;
+        this.retryAfter = retryAfter;
+        this.shutdownTimeout = shutdownTimeout;
+        // Only finished tickets are evicted; queued and running ones are bounded by the partition queues
+        this.finishedTickets = Caffeine.newBuilder()
+                .maximumSize((long) partitionCount * queueCapacity * 100)
+                .expireAfterWrite(ticketTtl)
+                .build();
+
+        this.partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            ThreadPoolExecutor partition = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("checkout-async-" + i + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            partitions.add(partition);
+            Gauge.builder("checkout.async.queue.depth", partition, p -> p.getQueue().size())
+                    .description("Checkouts waiting for a worker")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+
+        this.queueWait = Timer.builder("checkout.async.queue.wait")
+                .description("Time an asynchronous checkout waited for a worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("checkout.async.rejected")
+                .description("Asynchronous checkouts rejected because the queue was full")
+                .register(meterRegistry);
+        this.completed = outcome(meterRegistry, "completed");
+        this.failed = outcome(meterRegistry, "failed");
+    }
+
+    /**
+     * Validates the checkout and queues it. Returns the ticket to poll.
+     */
+    public CheckoutTicketResponse submit(CheckoutRequest request) {
+        orderPlacementService.validateCheckout(request);
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), request.getCartId());
+        activeTickets.put(ticket.id, ticket);
+        try {
+            partitionFor(request.getCartId()).execute(new QueuedCheckout(ticket, request));
+        } catch (RejectedExecutionException e) {
+            activeTickets.remove(ticket.id);
+            rejected.increment();
+            throw new ServiceBusyException("Checkout queue is full. Please try again shortly.", retryAfter);
+        }
+        log.info("Queued checkout for cart {} as ticket {}", request.getCartId(), ticket.id);
+        return ticket.toResponse();
+    }
+
+    public CheckoutTicketResponse getTicket(String ticketId) {
+        Ticket ticket = activeTickets.get(ticketId);
+        if (ticket == null) {
+            ticket = finishedTickets.getIfPresent(ticketId);
+        }
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Checkout ticket", "id", ticketId);
+        }
+        return ticket.toResponse();
+    }
+
+    /**
+     * Stops accepting checkouts and lets the queued ones finish for up to the shutdown timeout.
+     * Checkouts still waiting after that are not started; their tickets are marked FAILED.
+     */
+    @PreDestroy
+    public void shutdown() {
+        partitions.forEach(ThreadPoolExecutor::shutdown);
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (ThreadPoolExecutor partition : partitions) {
+                partition.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int abandoned = 0;
+        for (ThreadPoolExecutor partition : partitions) {
+            for (Runnable pending : partition.shutdownNow()) {
+                if (pending instanceof QueuedCheckout queued) {
+                    fail(queued.ticket, "Checkout was not started before the service shut down. Please try again.");
+                    abandoned++;
+                }
+            }
+        }
+        if (abandoned > 0) {
+            log.warn("Shut down with {} asynchronous checkouts not started", abandoned);
+        }
+    }
+
+    private void run(Ticket ticket, CheckoutRequest request) {
+        ticket.startedAt = LocalDateTime.now();
+        queueWait.record(Duration.between(ticket.submittedAt, ticket.startedAt));
+        ticket.status = CheckoutTicketStatus.PROCESSING;
+        try {
+            ticket.checkout = checkoutService.checkout(request);
+            ticket.completedAt = LocalDateTime.now();
+            ticket.status = CheckoutTicketStatus.COMPLETED;
+            completed.increment();
+            finish(ticket);
+        } catch (BusinessException | ResourceNotFoundException e) {
+            fail(ticket, e.getMessage());
+        } catch (ExternalServiceException e) {
+            fail(ticket, "Service temporarily unavailable. Please try again later.");
+        } catch (OptimisticLockingFailureException e) {
+            fail(ticket, "The resource was modified concurrently. Please try again.");
+        } catch (RuntimeException e) {
+            log.error("Asynchronous checkout {} failed", ticket.id, e);
+            fail(ticket, "An unexpected error occurred. Please try again later.");
+        }
+    }
+
+    private void fail(Ticket ticket, String error) {
+        log.warn("Asynchronous checkout {} for cart {} failed: {}", ticket.id, ticket.cartId, error);
+        ticket.error = error;
+        ticket.completedAt = LocalDateTime.now();
+        ticket.status = CheckoutTicketStatus.FAILED;
+        failed.increment();
+        finish(ticket);
+    }
+
+    // Hands a ticket over to the finished-ticket cache, from which it may be evicted
+    private void finish(Ticket ticket) {
+        finishedTickets.put(ticket.id, ticket);
+        activeTickets.remove(ticket.id);
+    }
+
+    private ThreadPoolExecutor partitionFor(Long cartId) {
+        return partitions.get(Math.floorMod(cartId.hashCode(), partitions.size()));
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("checkout.async.processed")
+                .description("Asynchronous checkouts run by a worker, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A checkout waiting in a partition queue; identifies its ticket if it is never started.
+     */
+    private final class QueuedCheckout implements Runnable {
+
+        private final Ticket ticket;
+        private final CheckoutRequest request;
+
+        private QueuedCheckout(Ticket ticket, CheckoutRequest request) {
+            this.ticket = ticket;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            AsyncCheckoutService.this.run(ticket, request);
+        }
+    }
+
+    /**
+     * Mutable progress of one checkout; written by its worker, read by pollers.
+     */
+    private static final class Ticket {
+
+        private final String id;
+        private final Long cartId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile CheckoutTicketStatus status = CheckoutTicketStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile CheckoutResponse checkout;
+        private volatile String error;
+
+        private Ticket(String id, Long cartId) {
+            this.id = id;
+            this.cartId = cartId;
+        }
+
+        private CheckoutTicketResponse toResponse() {
+            return CheckoutTicketResponse.builder()
+                    .ticket(id)
+                    .cartId(cartId)
+                    .status(status)
+                    .checkout(checkout)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
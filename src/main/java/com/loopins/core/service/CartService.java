@@ -1,13 +1,16 @@
 package com.loopins.core.service;
 
+import com.loopins.core.cache.CartCache;
 import com.loopins.core.domain.entity.Cart;
 import com.loopins.core.domain.entity.CartItem;
 import com.loopins.core.domain.entity.Product;
 import com.loopins.core.domain.entity.User;
 import com.loopins.core.domain.enums.CartStatus;
 import com.loopins.core.dto.request.AddCartItemRequest;
+import com.loopins.core.dto.request.BatchCartItemRequest;
 import com.loopins.core.dto.request.CreateCartRequest;
 import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.event.CartChangedEvent;
 import com.loopins.core.exception.BusinessException;
 import com.loopins.core.exception.ResourceNotFoundException;
 import com.loopins.core.mapper.CartMapper;
@@ -15,21 +18,38 @@ import com.loopins.core.repository.CartItemRepository;
 import com.loopins.core.repository.CartRepository;
 import com.loopins.core.repository.ProductRepository;
 import com.loopins.core.repository.UserRepository;
+import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
+    /**
+     * Retry instance for cart writes that lose an optimistic-lock race.
+     * Each attempt runs in a fresh transaction, so the cart is re-read and the operation re-applied.
+     */
+    public static final String CART_WRITE_RETRY = "cart-write";
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
     private final CartMapper cartMapper;
     private final ProductRepository productRepository;
+    private final CartCache cartCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new cart for a user or guest, or returns existing active cart.
@@ -42,7 +62,7 @@ public class CartService {
             return cartRepository.findActiveCartBySessionId(request.getSessionId())
                     .map(existingCart -> {
                         log.info("Returning existing guest cart: {}", existingCart.getId());
-                        return cartMapper.toResponse(existingCart);
+                        return writeThrough(existingCart);
                     })
                     .orElseGet(() -> {
                         Cart newCart = Cart.builder()
@@ -51,7 +71,7 @@ public class CartService {
                                 .build();
                         Cart savedCart = cartRepository.save(newCart);
                         log.info("Created new guest cart: {}", savedCart.getId());
-                        return cartMapper.toResponse(savedCart);
+                        return writeThrough(savedCart);
                     });
         }
 
@@ -63,7 +83,7 @@ public class CartService {
         return cartRepository.findActiveCartByUserId(request.getUserId())
                 .map(existingCart -> {
                     log.info("Returning existing active cart: {}", existingCart.getId());
-                    return cartMapper.toResponse(existingCart);
+                    return writeThrough(existingCart);
                 })
                 .orElseGet(() -> {
                     Cart newCart = Cart.builder()
@@ -72,46 +92,70 @@ public class CartService {
                             .build();
                     Cart savedCart = cartRepository.save(newCart);
                     log.info("Created new cart: {}", savedCart.getId());
-                    return cartMapper.toResponse(savedCart);
+                    return writeThrough(savedCart);
                 });
     }
 
     /**
      * Gets a cart by ID with all items.
+     * Not transactional, so that cache hits never borrow a database connection.
      */
-    @Transactional(readOnly = true)
     public CartResponse getCart(Long cartId) {
+        CartResponse cached = cartCache.get(cartId);
+        if (cached != null) {
+            return cached;
+        }
         log.debug("Fetching cart: {}", cartId);
         Cart cart = cartRepository.findByIdWithItems(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "id", cartId));
-        return cartMapper.toResponse(cart);
+        return readThrough(cart);
     }
 
     /**
      * Gets the active cart for a user.
      */
-    @Transactional(readOnly = true)
     public CartResponse getActiveCartByUserId(Long userId) {
+        CartResponse cached = cartCache.getActiveByUserId(userId);
+        if (cached != null) {
+            return cached;
+        }
         log.debug("Fetching active cart for user: {}", userId);
         Cart cart = cartRepository.findActiveCartByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Active cart not found for user: " + userId));
-        return cartMapper.toResponse(cart);
+        return readThrough(cart);
     }
 
     /**
      * Gets the active cart for a guest session.
      */
-    @Transactional(readOnly = true)
     public CartResponse getActiveCartBySessionId(String sessionId) {
+        CartResponse cached = cartCache.getActiveBySessionId(sessionId);
+        if (cached != null) {
+            return cached;
+        }
         log.debug("Fetching active cart for session: {}", sessionId);
         Cart cart = cartRepository.findActiveCartBySessionId(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Active cart not found for session: " + sessionId));
-        return cartMapper.toResponse(cart);
+        return readThrough(cart);
+    }
+
+    /**
+     * Returns the entity tag of a cart, derived from its version.
+     * Answered from the near-cache or a single-column lookup; items are never loaded.
+     */
+    public String getCartETag(Long cartId) {
+        CartResponse cached = cartCache.get(cartId);
+        Long version = cached != null && cached.getVersion() != null
+                ? cached.getVersion()
+                : cartRepository.findVersionById(cartId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Cart", "id", cartId));
+        return "\"cart-" + cartId + "-" + version + "\"";
     }
 
     /**
      * Merges a guest cart into a user cart when user logs in.
      */
+    @Retry(name = CART_WRITE_RETRY)
     @Transactional
     public CartResponse mergeGuestCartToUser(String sessionId, Long userId) {
         log.info("Merging guest cart (session: {}) to user: {}", sessionId, userId);
@@ -138,12 +182,10 @@ public class CartService {
                     return cartRepository.save(newCart);
                 });
 
-        // Merge items from guest cart to user cart
+        // Merge items from guest cart to user cart in a single pass, collecting new lines
+        List<CartItem> newItems = new ArrayList<>();
         for (CartItem guestItem : guestCart.getItems()) {
-            CartItem existingItem = userCart.getItems().stream()
-                    .filter(item -> item.getProductId().equals(guestItem.getProductId()))
-                    .findFirst()
-                    .orElse(null);
+            CartItem existingItem = userCart.findItemByProductId(guestItem.getProductId());
 
             if (existingItem != null) {
                 existingItem.increaseQuantity(guestItem.getQuantity());
@@ -155,22 +197,27 @@ public class CartService {
                         .quantity(guestItem.getQuantity())
                         .build();
                 userCart.addItem(newItem);
+                newItems.add(newItem);
             }
         }
+        cartItemRepository.saveAll(newItems);
 
         // Mark guest cart as checked out (or delete it)
         guestCart.markAsCheckedOut();
         cartRepository.save(guestCart);
+        cartCache.evict(guestCart.getId(), guestCart.getVersion());
+        eventPublisher.publishEvent(new CartChangedEvent(this, guestCart.getId(), null));
 
         // Save merged user cart
         Cart savedCart = cartRepository.save(userCart);
         log.info("Guest cart merged successfully. User cart now has {} items", savedCart.getTotalItemCount());
-        return cartMapper.toResponse(savedCart);
+        return writeThrough(savedCart);
     }
 
     /**
      * Adds an item to the cart. If product already exists, increases quantity.
      */
+    @Retry(name = CART_WRITE_RETRY)
     @Transactional
     public CartResponse addItem(Long cartId, AddCartItemRequest request) {
         log.info("Adding item to cart {}: productId={}, quantity={}",
@@ -184,10 +231,7 @@ public class CartService {
         }
 
         // Check if item already exists in cart
-        CartItem existingItem = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(request.getProductId()))
-                .findFirst()
-                .orElse(null);
+        CartItem existingItem = cart.findItemByProductId(request.getProductId());
 
         if (existingItem != null) {
             // Update quantity if product already in cart
@@ -209,12 +253,13 @@ public class CartService {
         }
 
         Cart savedCart = cartRepository.save(cart);
-        return cartMapper.toResponse(savedCart);
+        return writeThrough(savedCart);
     }
 
     /**
      * Removes an item from the cart.
      */
+    @Retry(name = CART_WRITE_RETRY)
     @Transactional
     public CartResponse removeItem(Long cartId, Long itemId) {
         log.info("Removing item {} from cart {}", itemId, cartId);
@@ -236,12 +281,13 @@ public class CartService {
 
         Cart savedCart = cartRepository.save(cart);
         log.info("Item removed from cart");
-        return cartMapper.toResponse(savedCart);
+        return writeThrough(savedCart);
     }
 
     /**
      * Updates item quantity in cart.
      */
+    @Retry(name = CART_WRITE_RETRY)
     @Transactional
     public CartResponse updateItemQuantity(Long cartId, Long itemId, Integer quantity) {
         log.info("Updating item {} quantity to {} in cart {}", itemId, quantity, cartId);
@@ -266,12 +312,85 @@ public class CartService {
         }
 
         Cart savedCart = cartRepository.save(cart);
-        return cartMapper.toResponse(savedCart);
+        return writeThrough(savedCart);
+    }
+
+    /**
+     * Applies an ordered list of add/update/remove operations to the cart in one transaction.
+     * All products referenced by ADD operations are resolved with a single query,
+     * and the cart is flushed once. Either every operation is applied or none is.
+     */
+    @Retry(name = CART_WRITE_RETRY)
+    @Transactional
+    public CartResponse applyBatch(Long cartId, BatchCartItemRequest request) {
+        List<BatchCartItemRequest.Operation> operations = request.getOperations();
+        log.info("Applying {} item operations to cart {}", operations.size(), cartId);
+
+        Cart cart = cartRepository.findByIdWithItems(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "id", cartId));
+
+        if (!cart.isActive()) {
+            throw new BusinessException("Cannot modify a cart that has been checked out");
+        }
+
+        // Look up prices from product catalog in one round trip — never trust client-provided price
+        List<String> addedProductIds = operations.stream()
+                .filter(op -> op.getType() == BatchCartItemRequest.OperationType.ADD)
+                .map(BatchCartItemRequest.Operation::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Product> products = productRepository.findAllById(addedProductIds).stream()
+                .filter(product -> Boolean.TRUE.equals(product.getActive()))
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (BatchCartItemRequest.Operation op : operations) {
+            CartItem existingItem = cart.findItemByProductId(op.getProductId());
+
+            switch (op.getType()) {
+                case ADD -> {
+                    int quantity = requireQuantity(op, 1);
+                    if (existingItem != null) {
+                        existingItem.increaseQuantity(quantity);
+                    } else {
+                        Product product = products.get(op.getProductId());
+                        if (product == null) {
+                            throw new ResourceNotFoundException("Product", "id", op.getProductId());
+                        }
+                        cart.addItem(CartItem.builder()
+                                .productId(product.getId())
+                                .productName(product.getName())
+                                .unitPrice(product.getPrice())
+                                .quantity(quantity)
+                                .build());
+                    }
+                }
+                case UPDATE -> {
+                    int quantity = requireQuantity(op, 0);
+                    CartItem item = requireItem(existingItem, op);
+                    if (quantity == 0) {
+                        cart.removeItem(item);
+                        cartItemRepository.delete(item);
+                    } else {
+                        item.updateQuantity(quantity);
+                    }
+                }
+                case REMOVE -> {
+                    CartItem item = requireItem(existingItem, op);
+                    cart.removeItem(item);
+                    cartItemRepository.delete(item);
+                }
+            }
+        }
+
+        Cart savedCart = cartRepository.save(cart);
+        log.info("Applied {} item operations to cart {}", operations.size(), cartId);
+        return writeThrough(savedCart);
     }
 
     /**
      * Clears all items from the cart.
      */
+    @Retry(name = CART_WRITE_RETRY)
     @Transactional
     public CartResponse clearCart(Long cartId) {
         log.info("Clearing cart: {}", cartId);
@@ -283,10 +402,10 @@ public class CartService {
             throw new BusinessException("Cannot modify a cart that has been checked out");
         }
 
-        cart.getItems().clear();
+        cart.clearItems();
         Cart savedCart = cartRepository.save(cart);
         log.info("Cart cleared");
-        return cartMapper.toResponse(savedCart);
+        return writeThrough(savedCart);
     }
 
     /**
@@ -307,7 +426,62 @@ public class CartService {
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "id", cartId));
         cart.markAsCheckedOut();
         cartRepository.save(cart);
+        cartCache.evict(cartId, cart.getVersion());
+        eventPublisher.publishEvent(new CartChangedEvent(this, cartId, null));
         log.info("Cart {} marked as checked out", cartId);
     }
+
+    /**
+     * Deletes one chunk of abandoned guest carts and their items in a short transaction.
+     * Candidates that were touched since they were selected, or are locked by a concurrent write, are skipped.
+     */
+    @Transactional
+    public PurgedCarts purgeAbandonedGuestCarts(List<Long> candidateIds, LocalDateTime idleBefore) {
+        List<Cart> carts = cartRepository.lockAbandonedGuestCarts(candidateIds, idleBefore);
+        List<Long> cartIds = carts.stream()
+                .map(Cart::getId)
+                .collect(Collectors.toList());
+        if (cartIds.isEmpty()) {
+            return new PurgedCarts(0, 0);
+        }
+
+        int items = cartItemRepository.deleteAllByCartIdIn(cartIds);
+        cartRepository.deleteAllByIdInBatch(cartIds);
+        carts.forEach(cart -> cartCache.evict(cart.getId(), cart.getVersion()));
+        return new PurgedCarts(cartIds.size(), items);
+    }
+
+    public record PurgedCarts(int carts, int items) {
+    }
+
+    private static int requireQuantity(BatchCartItemRequest.Operation op, int min) {
+        if (op.getQuantity() == null || op.getQuantity() < min) {
+            throw new BusinessException("Quantity must be at least " + min + " for " + op.getType()
+                    + " of product " + op.getProductId());
+        }
+        return op.getQuantity();
+    }
+
+    private static CartItem requireItem(CartItem item, BatchCartItemRequest.Operation op) {
+        if (item == null) {
+            throw new ResourceNotFoundException("Cart item", "productId", op.getProductId());
+        }
+        return item;
+    }
+
+    private CartResponse readThrough(Cart cart) {
+        CartResponse response = cartMapper.toResponse(cart);
+        cartCache.populate(response);
+        return response;
+    }
+
+    private CartResponse writeThrough(Cart cart) {
+        // Flush so the snapshot carries the bumped version and update timestamp
+        cartRepository.flush();
+        CartResponse response = cartMapper.toResponse(cart);
+        cartCache.put(response);
+        eventPublisher.publishEvent(new CartChangedEvent(this, cart.getId(), response));
+        return response;
+    }
 }
 
@@ -0,0 +1,104 @@
+package com.loopins.core.service;
+
+import com.loopins.core.repository.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically deletes guest carts that have been idle longer than the configured TTL.
+ * Candidates are walked in keyset order by cart ID and deleted chunk by chunk,
+ * each chunk in its own short transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cart.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class GuestCartReaper {
+
+    private final CartService cartService;
+    private final CartRepository cartRepository;
+    private final Duration idleTtl;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private final Timer runTimer;
+    private final Counter cartsReclaimed;
+    private final Counter itemsReclaimed;
+    private final DistributionSummary rowsPerRun;
+
+    public GuestCartReaper(CartService cartService,
+                           CartRepository cartRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${cart.reaper.idle-ttl:7d}") Duration idleTtl,
+                           @Value("${cart.reaper.chunk-size:500}") int chunkSize,
+                           @Value("${cart.reaper.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.cartService = cartService;
+        this.cartRepository = cartRepository;
+        this.idleTtl = idleTtl;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.runTimer = Timer.builder("cart.reaper.run")
+                .description("Duration of a guest cart reaper run")
+                .register(meterRegistry);
+        this.cartsReclaimed = Counter.builder("cart.reaper.reclaimed")
+                .description("Rows deleted by the guest cart reaper")
+                .tag("table", "cart")
+                .register(meterRegistry);
+        this.itemsReclaimed = Counter.builder("cart.reaper.reclaimed")
+                .description("Rows deleted by the guest cart reaper")
+                .tag("table", "cart_item")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("cart.reaper.run.rows")
+                .description("Rows deleted per guest cart reaper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.reaper.interval:PT15M}",
+            initialDelayString = "${cart.reaper.initial-delay:PT5M}")
+    public void reap() {
+        LocalDateTime idleBefore = LocalDateTime.now().minus(idleTtl);
+        long afterId = 0L;
+        int chunks = 0;
+        int carts = 0;
+        int items = 0;
+
+        Timer.Sample sample = Timer.start();
+        try {
+            while (chunks < maxChunksPerRun) {
+                List<Long> candidateIds = cartRepository.findAbandonedGuestCartIds(idleBefore, afterId, chunkSize);
+                if (candidateIds.isEmpty()) {
+                    break;
+                }
+                afterId = candidateIds.get(candidateIds.size() - 1);
+                chunks++;
+
+                CartService.PurgedCarts purged = cartService.purgeAbandonedGuestCarts(candidateIds, idleBefore);
+                carts += purged.carts();
+                items += purged.items();
+
+                if (candidateIds.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            long nanos = sample.stop(runTimer);
+            cartsReclaimed.increment(carts);
+            itemsReclaimed.increment(items);
+            rowsPerRun.record(carts + items);
+            if (carts > 0) {
+                log.info("Reaped {} guest carts ({} items) idle since before {} in {} chunks, {} ms",
+                        carts, items, idleBefore, chunks, Duration.ofNanos(nanos).toMillis());
+            }
+        }
+    }
+}
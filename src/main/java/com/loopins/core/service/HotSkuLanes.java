@@ -0,0 +1,335 @@
+package com.loopins.core.service;
+
+import com.loopins.core.exception.ServiceBusyException;
+import com.loopins.core.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-writer inventory lanes for products flagged as hot (flash sales).
+ * Each hot product gets a lane: one writer thread with a bounded queue that grants or denies
+ * reservations in arrival order against a locally held allotment. The allotment is claimed from
+ * {@code products.stock} in blocks with one conditional update, so thousands of checkouts of the
+ * same product cost one database write per block instead of one contended row lock each.
+ * Claimed stock is already subtracted in the database, so lanes on several instances never
+ * oversell; unused allotment is returned when the flag is cleared or the instance stops.
+ * A block is at most a share of the remaining stock, so one instance cannot take a limited drop
+ * whole, and a request the lane cannot cover goes to the regular conditional update, which still
+ * sells units that other instances return.
+ * An allotment still held when an instance crashes is missing from {@code products.stock}
+ * until corrected by a stock adjustment.
+ */
+@Slf4j
+@Component
+public class HotSkuLanes {
+
+    private static final String CLAIM_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock >= ?";
+    private static final String RETURN_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    /**
+     * Outcome of a reservation request sent to a lane.
+     */
+    public enum Grant {
+        GRANTED,
+        REGULAR // No open lane, or the lane cannot cover the request; use the regular reservation path
+    }
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int claimSize;
+    private final double claimShare;
+    private final int queueCapacity;
+    private final Duration grantTimeout;
+    private final long soldOutBackoffNanos;
+    private final Duration shutdownTimeout;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public HotSkuLanes(ProductRepository productRepository,
+                       JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${stock.hot-lanes.claim-size:100}") int claimSize,
+                       @Value("${stock.hot-lanes.claim-share:0.1}") double claimShare,
+                       @Value("${stock.hot-lanes.queue-capacity:5000}") int queueCapacity,
+                       @Value("${stock.hot-lanes.grant-timeout:PT2S}") Duration grantTimeout,
+                       @Value("${stock.hot-lanes.sold-out-backoff:PT1S}") Duration soldOutBackoff,
+                       @Value("${stock.hot-lanes.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.claimSize = claimSize;
+        this.claimShare = claimShare;
+        this.queueCapacity = queueCapacity;
+        this.grantTimeout = grantTimeout;
+        this.soldOutBackoffNanos = soldOutBackoff.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public boolean isHot(String productId) {
+        return lanes.containsKey(productId);
+    }
+
+    /**
+     * Asks the product's lane for stock and waits for its answer.
+     * Throws {@link ServiceBusyException} when the lane's queue is full or the answer takes too long.
+     */
+    public Grant tryReserve(String productId, int quantity) {
+        Lane lane = lanes.get(productId);
+        if (lane == null) {
+            return Grant.REGULAR;
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        long start = System.nanoTime();
+        Future<Grant> answer;
+        try {
+            answer = lane.writer.submit(() -> claimed.compareAndSet(false, true) ? lane.grant(quantity) : Grant.REGULAR);
+        } catch (RejectedExecutionException e) {
+            // Queue full, or the lane closed in the meantime
+            if (lane.writer.isShutdown()) {
+                return Grant.REGULAR;
+            }
+            throw new ServiceBusyException("Too many checkouts for product " + productId + ". Please try again shortly.",
+                    grantTimeout);
+        }
+
+        try {
+            Grant grant;
+            try {
+                grant = answer.get(grantTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    throw new ServiceBusyException("Too many checkouts for product " + productId
+                            + ". Please try again shortly.", grantTimeout);
+                }
+                // The writer has already started on this request; its answer is binding
+                grant = answer.get();
+            }
+            lane.grantLatency(grant).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return grant;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hot SKU lane " + productId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hot SKU lane " + productId + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Gives back stock granted by {@link #tryReserve} whose reservation was not committed.
+     */
+    public void credit(String productId, int quantity) {
+        Lane lane = lanes.get(productId);
+        if (lane != null) {
+            try {
+                lane.writer.execute(() -> lane.credit(quantity));
+                return;
+            } catch (RejectedExecutionException e) {
+                // Lane closed or saturated; return the stock to the database instead
+            }
+        }
+        jdbcTemplate.update(RETURN_SQL, quantity, productId);
+    }
+
+    /**
+     * Opens lanes for newly flagged products and closes lanes of products no longer flagged,
+     * so flags changed on another instance are picked up.
+     */
+    @Scheduled(fixedDelayString = "${stock.hot-lanes.sync-interval:PT30S}")
+    public void syncLanes() {
+        Set<String> hot = new HashSet<>(productRepository.findHotProductIds());
+        hot.forEach(this::open);
+        List.copyOf(lanes.keySet()).stream()
+                .filter(productId -> !hot.contains(productId))
+                .forEach(this::close);
+    }
+
+    public void open(String productId) {
+        lanes.computeIfAbsent(productId, id -> {
+            log.info("Opening hot SKU lane for product {}", id);
+            return new Lane(id);
+        });
+    }
+
+    /**
+     * Closes the lane and returns its unused allotment. Requests already queued are still answered,
+     * after which reservations for the product take the regular path.
+     */
+    public void close(String productId) {
+        closeLane(productId);
+    }
+
+    /**
+     * Closes every lane and waits for the writers to return their allotments, so the stock is back
+     * in the database before the connection pool shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Lane> closed = List.copyOf(lanes.keySet()).stream()
+                .map(this::closeLane)
+                .filter(Objects::nonNull)
+                .toList();
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (Lane lane : closed) {
+                if (!lane.writer.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                    log.warn("Hot SKU lane for product {} did not finish within {}; its allotment may not be returned",
+                            lane.productId, shutdownTimeout);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Lane closeLane(String productId) {
+        Lane lane = lanes.remove(productId);
+        if (lane == null) {
+            return null;
+        }
+        log.info("Closing hot SKU lane for product {}", productId);
+        try {
+            lane.writer.execute(lane::drain);
+        } catch (RejectedExecutionException e) {
+            // Queue full: wait for room behind the requests already queued
+            try {
+                lane.writer.getQueue().put(lane::drain);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lane.writer.shutdown();
+        return lane;
+    }
+
+    /**
+     * One product's lane. The allotment is only touched by the lane's writer thread.
+     */
+    private final class Lane {
+
+        private final String productId;
+        private final ThreadPoolExecutor writer;
+        private final Gauge queueDepth;
+        private final Timer granted;
+        private final Timer fellBack;
+
+        private int allotment;
+        private boolean soldOut;
+        private long soldOutUntil;
+        private boolean drained;
+
+        private Lane(String productId) {
+            this.productId = productId;
+            this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("hot-sku-" + productId + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.queueDepth = Gauge.builder("stock.hot_lane.queue.depth", writer, w -> w.getQueue().size())
+                    .description("Reservation requests waiting in a hot SKU lane")
+                    .tag("sku", productId)
+                    .register(meterRegistry);
+            this.granted = grantTimer("granted");
+            this.fellBack = grantTimer("regular");
+        }
+
+        private Grant grant(int quantity) {
+            if (drained) {
+                return Grant.REGULAR;
+            }
+            if (allotment < quantity) {
+                refill(quantity - allotment);
+            }
+            if (allotment < quantity) {
+                return Grant.REGULAR;
+            }
+            allotment -= quantity;
+            return Grant.GRANTED;
+        }
+
+        private void credit(int quantity) {
+            if (drained) {
+                jdbcTemplate.update(RETURN_SQL, quantity, productId);
+            } else {
+                allotment += quantity;
+                soldOut = false;
+            }
+        }
+
+        private void refill(int needed) {
+            if (soldOut && System.nanoTime() - soldOutUntil < 0) {
+                return;
+            }
+            // Another instance may claim between the read and the update; re-read a few times
+            for (int attempt = 0; attempt < 3; attempt++) {
+                Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?",
+                        Integer.class, productId);
+                int available = stock != null ? stock : 0;
+                if (available < needed) {
+                    break;
+                }
+                // A block, capped at a share of what is left; never less than this request needs
+                int share = (int) Math.ceil(available * claimShare);
+                int claim = Math.min(Math.max(Math.min(claimSize, share), needed), available);
+                if (jdbcTemplate.update(CLAIM_SQL, claim, productId, claim) == 1) {
+                    allotment += claim;
+                    break;
+                }
+            }
+            soldOut = allotment < needed;
+            if (soldOut) {
+                soldOutUntil = System.nanoTime() + soldOutBackoffNanos;
+            }
+        }
+
+        private void drain() {
+            drained = true;
+            if (allotment > 0) {
+                jdbcTemplate.update(RETURN_SQL, allotment, productId);
+                log.info("Returned {} unused units of hot product {} to stock", allotment, productId);
+                allotment = 0;
+            }
+            meterRegistry.remove(queueDepth);
+            meterRegistry.remove(granted);
+            meterRegistry.remove(fellBack);
+        }
+
+        private Timer grantLatency(Grant grant) {
+            return grant == Grant.GRANTED ? granted : fellBack;
+        }
+
+        private Timer grantTimer(String outcome) {
+            return Timer.builder("stock.hot_lane.grant")
+                    .description("Time from submitting a reservation to a hot SKU lane until its answer")
+                    .tag("sku", productId)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
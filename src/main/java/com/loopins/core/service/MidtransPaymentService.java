@@ -37,7 +37,7 @@ public class MidtransPaymentService {
             // Build transaction details
             JSONObject transactionDetails = new JSONObject();
             transactionDetails.put("order_id", order.getId());
-            transactionDetails.put("gross_amount", order.getTotalAmount().longValue());
+            transactionDetails.put("gross_amount", order.getTotalAmount().toMajorUnits());
 
             // Build item details
             JSONArray itemDetails = new JSONArray();
@@ -45,17 +45,17 @@ public class MidtransPaymentService {
                 JSONObject itemDetail = new JSONObject();
                 itemDetail.put("id", item.getProductId());
                 itemDetail.put("name", item.getProductName());
-                itemDetail.put("price", item.getUnitPrice().longValue());
+                itemDetail.put("price", item.getUnitPrice().toMajorUnits());
                 itemDetail.put("quantity", item.getQuantity());
                 itemDetails.put(itemDetail);
             }
 
             // Add shipping fee as item
-            if (order.getShippingFee().longValue() > 0) {
+            if (order.getShippingFee().isPositive()) {
                 JSONObject shippingItem = new JSONObject();
                 shippingItem.put("id", "SHIPPING");
                 shippingItem.put("name", "Shipping Fee");
-                shippingItem.put("price", order.getShippingFee().longValue());
+                shippingItem.put("price", order.getShippingFee().toMajorUnits());
                 shippingItem.put("quantity", 1);
                 itemDetails.put(shippingItem);
             }
@@ -0,0 +1,287 @@
+package com.loopins.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams orders and their items for finance exports.
+ * Rows are read through a forward-only JDBC cursor with a bounded fetch size and written out as
+ * they arrive, so memory use does not depend on how many orders are exported. The PostgreSQL
+ * driver only uses a cursor inside a transaction, which is why the export runs in one.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.user_id, o.guest_email, o.status, o.subtotal, o.shipping_fee, o.total_amount,
+                   o.created_at, o.paid_at, i.product_id, i.product_name, i.unit_price, i.quantity
+            FROM orders o
+            LEFT JOIN order_item i ON i.order_id = o.id
+            """;
+    private static final String CSV_HEADER = "order_id,user_id,guest_email,status,subtotal,shipping_fee,"
+            + "total_amount,created_at,paid_at,product_id,product_name,unit_price,quantity";
+
+    /**
+     * Output format of an export.
+     */
+    public enum Format {
+        NDJSON, // One JSON object per order, with its items
+        CSV;    // One row per order item; orders without items get one row with empty item columns
+
+        /**
+         * Parses a format name regardless of case, e.g. {@code csv} or {@code NDJSON}.
+         */
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Unsupported export format '" + value + "'. Use ndjson or csv");
+            }
+        }
+    }
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public OrderExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.export.fetch-size:500}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes the orders created between {@code from} and {@code to} (both inclusive, either may be null)
+     * with the given status (null for all) to {@code out}, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, LocalDate from, LocalDate to, OrderStatus status, OutputStream out) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND o.created_at >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY o.created_at, o.id, i.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ExportWriter exportWriter = format == Format.CSV ? new CsvWriter(writer) : new NdjsonWriter(writer);
+
+        long start = System.nanoTime();
+        try {
+            exportWriter.start();
+            cursorJdbcTemplate.query(sql.toString(), exportWriter, args.toArray());
+            exportWriter.finish();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        String formatTag = format.name().toLowerCase(Locale.ROOT);
+        Timer.builder("orders.export")
+                .description("Duration of completed order exports")
+                .tag("format", formatTag)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        Counter.builder("orders.export.rows")
+                .description("Rows written by order exports")
+                .tag("format", formatTag)
+                .register(meterRegistry)
+                .increment(exportWriter.rows);
+
+        double seconds = Math.max(elapsed, 1) / 1_000_000_000.0;
+        log.info("Exported {} orders ({} rows) as {} in {} ms: {} rows/s",
+                exportWriter.orders, exportWriter.rows, format, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                Math.round(exportWriter.rows / seconds));
+    }
+
+    /**
+     * Receives the joined order/item rows in order and writes them out.
+     */
+    private abstract static class ExportWriter implements RowCallbackHandler {
+
+        protected final Writer writer;
+        private String currentOrderId;
+        long orders;
+        long rows;
+
+        ExportWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String orderId = rs.getString("id");
+            try {
+                if (!orderId.equals(currentOrderId)) {
+                    if (currentOrderId != null) {
+                        endOrder();
+                    }
+                    currentOrderId = orderId;
+                    orders++;
+                    startOrder(rs);
+                }
+                rows++;
+                row(rs);
+            } catch (IOException e) {
+                // Usually the client went away; abandons the query
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void start() throws IOException {
+        }
+
+        void finish() throws IOException {
+            if (currentOrderId != null) {
+                endOrder();
+            }
+        }
+
+        abstract void startOrder(ResultSet rs) throws SQLException, IOException;
+
+        abstract void row(ResultSet rs) throws SQLException, IOException;
+
+        abstract void endOrder() throws IOException;
+    }
+
+    private class NdjsonWriter extends ExportWriter {
+
+        private ExportedOrder order;
+
+        NdjsonWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void startOrder(ResultSet rs) throws SQLException {
+            order = new ExportedOrder(rs.getString("id"), rs.getObject("user_id", Long.class),
+                    rs.getString("guest_email"), rs.getString("status"), rs.getBigDecimal("subtotal"),
+                    rs.getBigDecimal("shipping_fee"), rs.getBigDecimal("total_amount"),
+                    toLocalDateTime(rs.getTimestamp("created_at")), toLocalDateTime(rs.getTimestamp("paid_at")),
+                    new ArrayList<>());
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException {
+            String productId = rs.getString("product_id");
+            if (productId != null) {
+                order.items().add(new ExportedItem(productId, rs.getString("product_name"),
+                        rs.getBigDecimal("unit_price"), rs.getInt("quantity")));
+            }
+        }
+
+        @Override
+        void endOrder() throws IOException {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+            order = null;
+        }
+    }
+
+    private static class CsvWriter extends ExportWriter {
+
+        CsvWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void start() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void startOrder(ResultSet rs) {
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException, IOException {
+            writer.write(String.join(",",
+                    csv(rs.getString("id")),
+                    csv(rs.getObject("user_id")),
+                    csv(rs.getString("guest_email")),
+                    csv(rs.getString("status")),
+                    csv(rs.getBigDecimal("subtotal")),
+                    csv(rs.getBigDecimal("shipping_fee")),
+                    csv(rs.getBigDecimal("total_amount")),
+                    csv(toLocalDateTime(rs.getTimestamp("created_at"))),
+                    csv(toLocalDateTime(rs.getTimestamp("paid_at"))),
+                    csv(rs.getString("product_id")),
+                    csv(rs.getString("product_name")),
+                    csv(rs.getBigDecimal("unit_price")),
+                    csv(rs.getObject("quantity"))));
+            writer.write('\n');
+        }
+
+        @Override
+        void endOrder() {
+        }
+
+        private static String csv(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    record ExportedOrder(String id, Long userId, String guestEmail, String status,
+                         BigDecimal subtotal, BigDecimal shippingFee, BigDecimal totalAmount,
+                         LocalDateTime createdAt, LocalDateTime paidAt, List<ExportedItem> items) {
+    }
+
+    record ExportedItem(String productId, String productName, BigDecimal unitPrice, int quantity) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.loopins.core.service;
+
+/**
+ * Generates order IDs. IDs must be unique across all instances and fit {@code orders.id}.
+ */
+public interface OrderIdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,243 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.entity.Cart;
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.entity.User;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.exception.ResourceNotFoundException;
+import com.loopins.core.repository.OrderRepository;
+import com.loopins.core.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Short database transactions used by {@link CheckoutService} and the {@link StockReservationSweeper}.
+ * Each method runs in its own transaction so no connection is held while
+ * the checkout waits on the Fulfillment Service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderPlacementService {
+
+    private final CartService cartService;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderIdGenerator orderIdGenerator;
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    /**
+     * Validates that the cart can be checked out, without changing anything.
+     */
+    @Transactional(readOnly = true)
+    public void validateCheckout(CheckoutRequest request) {
+        Cart cart = cartService.getCartEntity(request.getCartId());
+        validate(cart, request);
+    }
+
+    /**
+     * Validates the cart and builds the order it would become, without saving anything.
+     * The returned order is transient and carries no shipping fee yet.
+     */
+    @Transactional(readOnly = true)
+    public Order previewOrder(CheckoutRequest request) {
+        Cart cart = cartService.getCartEntity(request.getCartId());
+        User user = validate(cart, request);
+        return buildOrder(cart, user, request, Money.ZERO);
+    }
+
+    /**
+     * Creates the order from the cart, reserves its stock and marks the cart as checked out.
+     * The order starts as DRAFT until payment initiation is recorded, or as CREATED
+     * when payment is bypassed. Nothing is saved if any product is out of stock.
+     */
+    @Transactional
+    public Order placeOrder(CheckoutRequest request, Money shippingFee) {
+        Cart cart = cartService.getCartEntity(request.getCartId());
+        User user = validate(cart, request);
+
+        Order order = buildOrder(cart, user, request, shippingFee);
+        order.setId(orderIdGenerator.nextId());
+
+        if (Boolean.TRUE.equals(request.getBypassPayment())) {
+            order.markAsCreated();
+        }
+
+        // Checking out bumps the cart version, so a concurrent checkout of the same cart fails
+        cartService.markCartAsCheckedOut(cart.getId());
+        Order saved = orderRepository.saveAndFlush(order);
+        stockReservationService.reserve(saved);
+        orderSummaryProjector.project(saved);
+        return saved;
+    }
+
+    /**
+     * Loads an order with its items and user for payment initiation.
+     */
+    @Transactional(readOnly = true)
+    public Order loadForPayment(String orderId) {
+        Order order = orderRepository.findByIdWithItemsAndUser(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+
+        if (order.isPaid()) {
+            throw new BusinessException("Order is already paid");
+        }
+        return order;
+    }
+
+    /**
+     * Records a successfully initiated payment on the order.
+     */
+    @Transactional
+    public Order recordPaymentInitiated(String orderId, String paymentUrl, String paymentReference) {
+        Order order = orderRepository.findByIdWithItems(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+
+        if (!order.canInitiatePayment()) {
+            throw new BusinessException("Cannot record payment for order in status: " + order.getStatus());
+        }
+        order.markAsPaymentPending(paymentUrl, paymentReference);
+        Order saved = orderRepository.saveAndFlush(order);
+        orderSummaryProjector.project(saved);
+        return saved;
+    }
+
+    /**
+     * Leaves a DRAFT order as CREATED so that payment can be retried.
+     * Used when payment initiation failed, and as compensation when a successful
+     * initiation could not be recorded.
+     */
+    @Transactional
+    public Order releaseForPaymentRetry(String orderId) {
+        Order order = orderRepository.findByIdWithItems(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+
+        if (order.getStatus() == OrderStatus.DRAFT) {
+            order.markAsCreated();
+            order = orderRepository.saveAndFlush(order);
+            orderSummaryProjector.project(order);
+        }
+        return order;
+    }
+
+    /**
+     * Returns the expired stock holds of the given unpaid orders, and moves any of them still in DRAFT
+     * to CREATED. A DRAFT order with an expired hold belongs to a checkout that stopped before it
+     * recorded its payment result; as CREATED it can be paid through retry-payment or cancelled.
+     * Returns the number of reservations released.
+     */
+    @Transactional
+    public int releaseExpiredHolds(List<String> orderIds, LocalDateTime now) {
+        int released = stockReservationService.releaseExpired(orderIds, now);
+        for (String orderId : orderRepository.findIdsByIdInAndStatus(orderIds, OrderStatus.DRAFT)) {
+            if (orderRepository.transitionStatus(orderId, Set.of(OrderStatus.DRAFT), OrderStatus.CREATED, now) > 0) {
+                orderSummaryProjector.project(orderRepository.findByIdWithItems(orderId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId)));
+                log.warn("Order {} was left in DRAFT by an unfinished checkout; moved to CREATED", orderId);
+            }
+        }
+        return released;
+    }
+
+    private Order buildOrder(Cart cart, User user, CheckoutRequest request, Money shippingFee) {
+        Order.OrderBuilder orderBuilder = Order.builder()
+                .cart(cart)
+                .shippingAddress(request.getShippingAddress())
+                .shippingFee(shippingFee);
+
+        // Set user or guest info
+        if (user != null) {
+            orderBuilder.user(user);
+        } else {
+            orderBuilder
+                .guestEmail(request.getGuestEmail())
+                .guestName(request.getGuestName())
+                .guestPhone(request.getGuestPhone());
+        }
+
+        Order order = orderBuilder.build();
+
+        // Copy items from cart to order
+        cart.getItems().forEach(cartItem -> {
+            OrderItem orderItem = OrderItem.fromCartItem(cartItem);
+            order.addItem(orderItem);
+        });
+
+        // Calculate totals
+        order.calculateTotals();
+        return order;
+    }
+
+    /**
+     * Validates the cart for checkout and returns the ordering user, or null for a guest checkout.
+     */
+    private User validate(Cart cart, CheckoutRequest request) {
+        if (request.getUserId() == null) {
+            // Guest checkout - validate it's a guest cart
+            validateGuestCart(cart, request);
+            return null;
+        }
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
+        validateUserCart(cart, request.getUserId());
+        return user;
+    }
+
+    private void validateUserCart(Cart cart, Long userId) {
+        if (cart.getUser() == null || !cart.getUser().getId().equals(userId)) {
+            throw new BusinessException("Cart does not belong to the specified user");
+        }
+
+        if (!cart.isActive()) {
+            throw new BusinessException("Cart has already been checked out");
+        }
+
+        if (cart.isEmpty()) {
+            throw new BusinessException("Cannot checkout an empty cart");
+        }
+
+        // Check if cart has already been converted to an order
+        if (orderRepository.existsByCartId(cart.getId())) {
+            throw new BusinessException("An order has already been created from this cart");
+        }
+    }
+
+    private void validateGuestCart(Cart cart, CheckoutRequest request) {
+        if (cart.getSessionId() == null) {
+            throw new BusinessException("Invalid guest cart");
+        }
+
+        if (!cart.isActive()) {
+            throw new BusinessException("Cart has already been checked out");
+        }
+
+        if (cart.isEmpty()) {
+            throw new BusinessException("Cannot checkout an empty cart");
+        }
+
+        // Check if cart has already been converted to an order
+        if (orderRepository.existsByCartId(cart.getId())) {
+            throw new BusinessException("An order has already been created from this cart");
+        }
+
+        // Guest checkout requires email and name
+        if (request.getGuestEmail() == null || request.getGuestEmail().isBlank()) {
+            throw new BusinessException("Guest email is required for checkout");
+        }
+
+        if (request.getGuestName() == null || request.getGuestName().isBlank()) {
+            throw new BusinessException("Guest name is required for checkout");
+        }
+    }
+}
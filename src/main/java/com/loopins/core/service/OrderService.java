@@ -15,11 +15,12 @@ import com.loopins.core.repository.PaymentCallbackLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -29,6 +30,8 @@ public class OrderService {
     private final PaymentCallbackLogRepository callbackLogRepository;
     private final OrderMapper orderMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
+    private final OrderSummaryProjector orderSummaryProjector;
 
     /**
      * Gets an order by ID.
@@ -42,13 +45,14 @@ public class OrderService {
     }
 
     /**
-     * Gets orders for a user with pagination.
+     * Returns the entity tag of an order, derived from its last update time.
+     * Answered by a single-column lookup; items are never loaded.
      */
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByUserId(Long userId, Pageable pageable) {
-        log.debug("Fetching orders for user: {}", userId);
-        return orderRepository.findByUserId(userId, pageable)
-                .map(orderMapper::toResponse);
+    public String getOrderETag(String orderId) {
+        LocalDateTime updatedAt = orderRepository.findUpdatedAtById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        return "\"" + orderId + "-" + updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano() + "\"";
     }
 
     /**
@@ -67,23 +71,19 @@ public class OrderService {
                     "Payment callback already processed: " + request.getCallbackReference());
         }
 
-        Order order = orderRepository.findByIdWithItems(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        // Validate order state
-        if (!order.canBeConfirmed()) {
-            throw new BusinessException(
-                    "Order cannot be confirmed. Current status: " + order.getStatus());
-        }
-
-        // Verify payment reference matches
-        if (!order.getPaymentReference().equals(request.getPaymentReference())) {
+        // Mark order as paid, if it is awaiting payment under this reference
+        if (orderRepository.markPaid(orderId, Order.CONFIRMABLE_STATUSES, request.getPaymentReference(),
+                LocalDateTime.now()) == 0) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            if (!order.canBeConfirmed()) {
+                throw new BusinessException(
+                        "Order cannot be confirmed. Current status: " + order.getStatus());
+            }
             throw new BusinessException("Payment reference mismatch");
         }
-
-        // Mark order as paid
-        order.markAsPaid();
-        Order savedOrder = orderRepository.save(order);
+        stockReservationService.consume(orderId);
+        Order savedOrder = loadTransitioned(orderId);
 
         // Log the callback for idempotency
         saveCallbackLog(orderId, request, "PAYMENT_SUCCESS");
@@ -117,7 +117,8 @@ public class OrderService {
         }
 
         order.markAsPaymentFailed();
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        orderSummaryProjector.project(savedOrder);
 
         // Log the callback
         saveCallbackLog(orderId, request, "PAYMENT_FAILED");
@@ -133,16 +134,13 @@ public class OrderService {
     public OrderResponse cancelOrder(String orderId) {
         log.info("Cancelling order: {}", orderId);
 
-        Order order = orderRepository.findByIdWithItems(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (!order.canBeCancelled()) {
+        if (orderRepository.transitionStatus(orderId, Order.CANCELLABLE_STATUSES, OrderStatus.CANCELLED,
+                LocalDateTime.now()) == 0) {
             throw new BusinessException(
-                    "Order cannot be cancelled. Current status: " + order.getStatus());
+                    "Order cannot be cancelled. Current status: " + currentStatus(orderId));
         }
-
-        order.markAsCancelled();
-        Order savedOrder = orderRepository.save(order);
+        stockReservationService.release(orderId);
+        Order savedOrder = loadTransitioned(orderId);
 
         log.info("Order {} cancelled", orderId);
         return orderMapper.toResponse(savedOrder);
@@ -155,16 +153,11 @@ public class OrderService {
     public OrderResponse markAsShipped(String orderId) {
         log.info("Marking order as shipped: {}", orderId);
 
-        Order order = orderRepository.findByIdWithItems(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (order.getStatus() != OrderStatus.PAID) {
+        if (orderRepository.markShipped(orderId, Order.SHIPPABLE_STATUSES, LocalDateTime.now()) == 0) {
             throw new BusinessException(
-                    "Only paid orders can be shipped. Current status: " + order.getStatus());
+                    "Only paid orders can be shipped. Current status: " + currentStatus(orderId));
         }
-
-        order.markAsShipped();
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = loadTransitioned(orderId);
 
         log.info("Order {} marked as SHIPPED", orderId);
         return orderMapper.toResponse(savedOrder);
@@ -177,16 +170,11 @@ public class OrderService {
     public OrderResponse markAsCompleted(String orderId) {
         log.info("Marking order as completed: {}", orderId);
 
-        Order order = orderRepository.findByIdWithItems(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (order.getStatus() != OrderStatus.SHIPPED) {
+        if (orderRepository.markCompleted(orderId, Order.COMPLETABLE_STATUSES, LocalDateTime.now()) == 0) {
             throw new BusinessException(
-                    "Only shipped orders can be completed. Current status: " + order.getStatus());
+                    "Only shipped orders can be completed. Current status: " + currentStatus(orderId));
         }
-
-        order.markAsCompleted();
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = loadTransitioned(orderId);
 
         log.info("Order {} marked as COMPLETED", orderId);
         return orderMapper.toResponse(savedOrder);
@@ -201,6 +189,25 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
     }
 
+    /**
+     * Loads an order after a status transition committed by a conditional update, for the response,
+     * and brings its summary up to date.
+     */
+    private Order loadTransitioned(String orderId) {
+        Order order = orderRepository.findByIdWithItems(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        orderSummaryProjector.project(order);
+        return order;
+    }
+
+    /**
+     * Status of an order whose conditional update matched no row; not found if the order does not exist.
+     */
+    private OrderStatus currentStatus(String orderId) {
+        return orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    }
+
     private void saveCallbackLog(String orderId, PaymentConfirmationRequest request, String type) {
         PaymentCallbackLog callbackLog = PaymentCallbackLog.builder()
                 .orderId(orderId)
@@ -211,4 +218,3 @@ public class OrderService {
         callbackLogRepository.save(callbackLog);
     }
 }
-
@@ -0,0 +1,77 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the order_summary read model.
+ * {@link #project} is called by every service method that creates an order or changes its state,
+ * inside the same transaction, so the list views never see a summary that disagrees with a committed order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryProjector {
+
+    private static final String UPDATE_SQL =
+            "UPDATE order_summary SET status = ?, total_amount = ?, updated_at = ? WHERE order_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO order_summary (order_id, user_id, guest_email, status, total_amount, item_count, "
+                    + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM order_summary WHERE order_id BETWEEN ? AND ?";
+    private static final String INSERT_RANGE_SQL = """
+            INSERT INTO order_summary (order_id, user_id, guest_email, status, total_amount, item_count,
+                                       created_at, updated_at)
+            SELECT o.id, o.user_id, o.guest_email, o.status, o.total_amount,
+                   (SELECT COUNT(*) FROM order_item i WHERE i.order_id = o.id),
+                   o.created_at, o.updated_at
+            FROM orders o
+            WHERE o.id BETWEEN ? AND ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Brings the order's summary in line with the order. Must run in the transaction that saves it,
+     * after the order is flushed, so the summary carries the same updated_at as the order row
+     * and matches what a rebuild would write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void project(Order order) {
+        Timestamp updatedAt = Timestamp.valueOf(order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now());
+        int updated = jdbcTemplate.update(UPDATE_SQL,
+                order.getStatus().name(), order.getTotalAmount().toBigDecimal(), updatedAt, order.getId());
+        if (updated == 0) {
+            // New order, or one placed before the projection existed
+            LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+            jdbcTemplate.update(INSERT_SQL,
+                    order.getId(),
+                    order.getUser() != null ? order.getUser().getId() : null,
+                    order.getGuestEmail(),
+                    order.getStatus().name(),
+                    order.getTotalAmount().toBigDecimal(),
+                    order.getItems().size(),
+                    Timestamp.valueOf(createdAt),
+                    updatedAt);
+        }
+    }
+
+    /**
+     * Regenerates the summaries of the orders with IDs from {@code firstId} to {@code lastId}
+     * from the source tables, in one transaction. Returns the number of summaries written.
+     */
+    @Transactional
+    public int rebuildRange(String firstId, String lastId) {
+        jdbcTemplate.update(DELETE_RANGE_SQL, firstId, lastId);
+        return jdbcTemplate.update(INSERT_RANGE_SQL, firstId, lastId);
+    }
+}
@@ -0,0 +1,185 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.entity.OrderSummary;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.dto.response.CursorPage;
+import com.loopins.core.dto.response.OrderSummaryRebuildResponse;
+import com.loopins.core.dto.response.OrderSummaryResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.mapper.OrderMapper;
+import com.loopins.core.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order list views, served from the order_summary read model so that a page costs one
+ * index range scan no matter how many items or associations its orders have.
+ */
+@Slf4j
+@Service
+public class OrderSummaryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NEXT_CHUNK_SQL = "SELECT id FROM orders WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final OrderMapper orderMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final int rebuildChunkSize;
+    private final int rebuildParallelism;
+
+    public OrderSummaryService(OrderSummaryRepository orderSummaryRepository,
+                               OrderSummaryProjector orderSummaryProjector,
+                               OrderMapper orderMapper,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${order.summary.rebuild.chunk-size:1000}") int rebuildChunkSize,
+                               @Value("${order.summary.rebuild.parallelism:4}") int rebuildParallelism) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.orderMapper = orderMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    /**
+     * Gets a page of a user's orders, newest first.
+     * The cursor is the opaque {@code nextCursor} of the previous page, or null for the first page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> getOrdersByUserId(Long userId, String cursor, int size) {
+        log.debug("Fetching order summaries for user: {}, cursor: {}", userId, cursor);
+        int limit = pageLimit(size);
+        // Fetch one extra row to learn whether another page follows
+        List<OrderSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = orderSummaryRepository.findFirstPageByUserId(userId, limit + 1);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            summaries = orderSummaryRepository.findPageByUserIdAfter(userId, position.createdAt(), position.id(), limit + 1);
+        }
+        return toPage(summaries, limit);
+    }
+
+    /**
+     * Gets a page of the orders in a status, newest first, for admin dashboards.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> getOrdersByStatus(OrderStatus status, String cursor, int size) {
+        log.debug("Fetching order summaries with status: {}, cursor: {}", status, cursor);
+        int limit = pageLimit(size);
+        List<OrderSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = orderSummaryRepository.findFirstPageByStatus(status.name(), limit + 1);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            summaries = orderSummaryRepository.findPageByStatusAfter(status.name(), position.createdAt(), position.id(), limit + 1);
+        }
+        return toPage(summaries, limit);
+    }
+
+    /**
+     * Regenerates the whole projection from the orders and order_item tables.
+     * Orders are split into chunks of consecutive IDs, each rebuilt in its own transaction by a pool
+     * of workers. An order whose state changes while its chunk is being rebuilt can keep the older
+     * state until its next change, so rebuild when order traffic is low.
+     */
+    public OrderSummaryRebuildResponse rebuild() {
+        log.info("Rebuilding order summaries: chunk size {}, parallelism {}", rebuildChunkSize, rebuildParallelism);
+        long start = System.nanoTime();
+
+        // The bounded queue and caller-runs policy keep the ID walk from running far ahead of the workers
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(rebuildParallelism, rebuildParallelism,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(rebuildParallelism * 2),
+                new CustomizableThreadFactory("order-summary-rebuild-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try {
+            String after = "";
+            while (true) {
+                List<String> ids = jdbcTemplate.queryForList(NEXT_CHUNK_SQL, String.class, after, rebuildChunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                String firstId = ids.get(0);
+                String lastId = ids.get(ids.size() - 1);
+                chunks.add(workers.submit(() -> orderSummaryProjector.rebuildRange(firstId, lastId)));
+                after = lastId;
+            }
+
+            long orders = 0;
+            for (Future<Integer> chunk : chunks) {
+                orders += chunk.get();
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Rebuilt {} order summaries in {} chunks in {} ms", orders, chunks.size(), elapsedMillis);
+            return OrderSummaryRebuildResponse.builder()
+                    .orders(orders)
+                    .chunks(chunks.size())
+                    .elapsedMillis(elapsedMillis)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding order summaries", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebuilding order summaries failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private CursorPage<OrderSummaryResponse> toPage(List<OrderSummary> summaries, int limit) {
+        boolean hasNext = summaries.size() > limit;
+        List<OrderSummary> page = hasNext ? summaries.subList(0, limit) : summaries;
+        OrderSummary last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<OrderSummaryResponse>builder()
+                .items(page.stream().map(orderMapper::toSummaryResponse).toList())
+                .nextCursor(hasNext ? new OrderCursor(last.getCreatedAt(), last.getOrderId()).encode() : null)
+                .build();
+    }
+
+    private static int pageLimit(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Position in an order listing, exchanged with clients as an opaque base64url token.
+     */
+    private record OrderCursor(LocalDateTime createdAt, String id) {
+
+        private String encode() {
+            String position = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static OrderCursor decode(String cursor) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('|');
+                if (separator < 0) {
+                    throw new BusinessException("Invalid cursor");
+                }
+                return new OrderCursor(LocalDateTime.parse(position.substring(0, separator)),
+                        position.substring(separator + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BusinessException("Invalid cursor");
+            }
+        }
+    }
+}
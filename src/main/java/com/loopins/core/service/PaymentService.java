@@ -2,6 +2,7 @@ package com.loopins.core.service;
 
 import com.loopins.core.domain.entity.Order;
 import com.loopins.core.domain.entity.PaymentCallbackLog;
+import com.loopins.core.domain.enums.OrderStatus;
 import com.loopins.core.dto.response.MidtransSnapResponse;
 import com.loopins.core.exception.BusinessException;
 import com.loopins.core.exception.DuplicateRequestException;
@@ -15,6 +16,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
@@ -29,6 +31,8 @@ public class PaymentService {
     private final OrderRepository orderRepository;
     private final PaymentCallbackLogRepository paymentCallbackLogRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
+    private final OrderSummaryProjector orderSummaryProjector;
 
     /**
      * Create Midtrans Snap payment for an order
@@ -50,7 +54,8 @@ public class PaymentService {
 
         // Update order with payment info
         order.markAsPaymentPending(snapResult.get("redirect_url"), snapResult.get("token"));
-        orderRepository.save(order);
+        orderRepository.saveAndFlush(order);
+        orderSummaryProjector.project(order);
 
         log.info("Snap payment created for order: {}, token: {}", orderId, snapResult.get("token"));
 
@@ -58,14 +63,16 @@ public class PaymentService {
                 .token(snapResult.get("token"))
                 .redirectUrl(snapResult.get("redirect_url"))
                 .orderId(orderId)
-                .grossAmount(order.getTotalAmount().longValue())
+                .grossAmount(order.getTotalAmount().toMajorUnits())
                 .message("Payment token created successfully. Please complete payment.")
                 .build();
     }
 
 
     /**
-     * Handle payment notification from Midtrans
+     * Handle payment notification from Midtrans.
+     * Status changes are compare-and-set updates, so a notification racing a cancellation
+     * never overwrites the status the other one committed.
      */
     @Transactional
     public void handlePaymentNotification(Map<String, Object> notification) {
@@ -77,8 +84,8 @@ public class PaymentService {
         log.info("Processing payment notification for order: {}, status: {}, fraud: {}",
                 orderId, transactionStatus, fraudStatus);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        // Not found if the order does not exist
+        currentStatus(orderId);
 
         // Check for duplicate notification (keyed by transactionId + status to allow
         // pending → settlement transitions for the same transaction)
@@ -97,37 +104,48 @@ public class PaymentService {
         paymentCallbackLogRepository.save(callbackLog);
 
         // Process based on transaction status
+        boolean transitioned = false;
+        boolean paid = false;
         switch (transactionStatus) {
             case "capture":
                 if ("accept".equals(fraudStatus)) {
-                    order.markAsPaid();
-                    log.info("Order {} marked as PAID", orderId);
+                    transitioned = paid = markPaid(orderId);
                 }
                 break;
             case "settlement":
-                order.markAsPaid();
-                log.info("Order {} marked as PAID", orderId);
+                transitioned = paid = markPaid(orderId);
                 break;
             case "pending":
-                order.markAsPaymentPending(order.getPaymentUrl(), order.getPaymentReference());
+                transitioned = orderRepository.transitionStatus(orderId, Order.PAYMENT_INITIABLE_STATUSES,
+                        OrderStatus.PAYMENT_PENDING, LocalDateTime.now()) > 0;
                 log.info("Order {} is pending payment", orderId);
                 break;
             case "deny":
             case "expire":
             case "cancel":
-                order.markAsCancelled();
-                log.info("Order {} cancelled due to payment status: {}", orderId, transactionStatus);
+                if (orderRepository.transitionStatus(orderId, Order.CANCELLABLE_STATUSES,
+                        OrderStatus.CANCELLED, LocalDateTime.now()) > 0) {
+                    stockReservationService.release(orderId);
+                    transitioned = true;
+                    log.info("Order {} cancelled due to payment status: {}", orderId, transactionStatus);
+                } else {
+                    log.warn("Order {} not cancelled for payment status: {}. Current status: {}",
+                            orderId, transactionStatus, currentStatus(orderId));
+                }
                 break;
             default:
                 log.warn("Unknown transaction status: {} for order: {}", transactionStatus, orderId);
         }
 
-        orderRepository.save(order);
+        if (transitioned) {
+            Order order = orderRepository.findByIdWithItems(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            orderSummaryProjector.project(order);
 
-        // Publish event after save — listener fires after transaction commits
-        if ("settlement".equals(transactionStatus) ||
-                ("capture".equals(transactionStatus) && "accept".equals(fraudStatus))) {
-            eventPublisher.publishEvent(new OrderPaidEvent(this, order));
+            // Listener fires after transaction commits
+            if (paid) {
+                eventPublisher.publishEvent(new OrderPaidEvent(this, order));
+            }
         }
     }
 
@@ -142,4 +160,23 @@ public class PaymentService {
         String status = order.isPaid() ? "paid" : order.getStatus().name().toLowerCase();
         return Map.of("orderId", orderId, "status", status);
     }
+
+    /**
+     * Marks the order paid if it is still awaiting payment; a payment for an order that was cancelled
+     * or already paid in the meantime leaves it as it is.
+     */
+    private boolean markPaid(String orderId) {
+        if (orderRepository.markPaid(orderId, Order.PAYABLE_STATUSES, LocalDateTime.now()) == 0) {
+            log.warn("Payment for order {} not applied. Current status: {}", orderId, currentStatus(orderId));
+            return false;
+        }
+        stockReservationService.consume(orderId);
+        log.info("Order {} marked as PAID", orderId);
+        return true;
+    }
+
+    private OrderStatus currentStatus(String orderId) {
+        return orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    }
 }
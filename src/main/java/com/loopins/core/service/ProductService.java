@@ -1,6 +1,7 @@
 package com.loopins.core.service;
 
 import com.loopins.core.domain.entity.Product;
+import com.loopins.core.domain.value.Money;
 import com.loopins.core.dto.request.CreateProductRequest;
 import com.loopins.core.dto.request.StockAdjustmentRequest;
 import com.loopins.core.dto.response.ProductResponse;
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final HotSkuLanes hotSkuLanes;
 
     public List<ProductResponse> getAllProducts() {
         return productRepository.findAll().stream()
@@ -43,7 +47,7 @@ public class ProductService {
         Product product = Product.builder()
                 .id(request.getId())
                 .name(request.getName())
-                .price(request.getPrice())
+                .price(Money.of(request.getPrice()))
                 .stock(request.getStock())
                 .active(true)
                 .createdAt(LocalDateTime.now())
@@ -54,22 +58,23 @@ public class ProductService {
         return toResponse(saved);
     }
 
+    /**
+     * Adjusts stock with a single conditional update, so concurrent adjustments and
+     * checkout reservations never overwrite each other.
+     */
     @Transactional
     public ProductResponse adjustStock(String id, StockAdjustmentRequest request) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-
-        int newStock = product.getStock() + request.getQuantity();
-        if (newStock < 0) {
+        if (productRepository.adjustStock(id, request.getQuantity()) == 0) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
             throw new BusinessException("Cannot reduce stock below 0. Current stock: "
                     + product.getStock() + ", adjustment: " + request.getQuantity());
         }
 
-        product.setStock(newStock);
-        product.setUpdatedAt(LocalDateTime.now());
-        Product saved = productRepository.save(product);
-        log.info("Adjusted stock for product {}: {} -> {} (reason: {})",
-                id, product.getStock(), newStock, request.getReason());
+        Product saved = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        log.info("Adjusted stock for product {} by {} to {} (reason: {})",
+                id, request.getQuantity(), saved.getStock(), request.getReason());
         return toResponse(saved);
     }
 
@@ -77,7 +82,7 @@ public class ProductService {
     public ProductResponse updatePrice(String id, java.math.BigDecimal newPrice) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        product.setPrice(newPrice);
+        product.setPrice(Money.of(newPrice));
         product.setUpdatedAt(LocalDateTime.now());
         Product saved = productRepository.save(product);
         log.info("Updated price for product {}: {}", id, newPrice);
@@ -95,6 +100,31 @@ public class ProductService {
         return toResponse(saved);
     }
 
+    /**
+     * Flags or unflags a product for flash-sale handling. The product's hot SKU lane on this
+     * instance is opened or closed once the change commits; other instances follow on their next sync.
+     */
+    @Transactional
+    public ProductResponse setHot(String id, boolean hot) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        product.setHot(hot);
+        product.setUpdatedAt(LocalDateTime.now());
+        Product saved = productRepository.save(product);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (hot) {
+                    hotSkuLanes.open(id);
+                } else {
+                    hotSkuLanes.close(id);
+                }
+            }
+        });
+        log.info("Set hot for product {}: {}", id, hot);
+        return toResponse(saved);
+    }
+
     @Transactional
     public void deleteProduct(String id) {
         Product product = productRepository.findById(id)
@@ -107,9 +137,10 @@ public class ProductService {
         return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
-                .price(product.getPrice())
+                .price(product.getPrice().toBigDecimal())
                 .stock(product.getStock())
                 .active(product.getActive())
+                .hot(product.getHot())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
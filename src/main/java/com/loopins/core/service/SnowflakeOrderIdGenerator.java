@@ -0,0 +1,73 @@
+package com.loopins.core.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered order IDs in the Snowflake layout: 41 bits of milliseconds since 2024-01-01,
+ * 10 bits of node ID and 12 bits of per-millisecond sequence, written as 13 Crockford base32
+ * characters after the {@code ORDER-} prefix (e.g. {@code ORDER-01HRG9V5Q2M0Z}).
+ * IDs sort by creation time, both as numbers and as strings, so new orders are appended to the
+ * end of the primary key index.
+ * Generation is lock-free. When the sequence of a millisecond is exhausted, or the clock steps
+ * back, the timestamp part runs ahead of the clock instead of waiting, so IDs of a node are
+ * strictly increasing.
+ */
+@Component
+public class SnowflakeOrderIdGenerator implements OrderIdGenerator {
+
+    static final String PREFIX = "ORDER-";
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // Last issued (milliseconds since epoch << SEQUENCE_BITS | sequence)
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderIdGenerator(@Value("${order.id.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.id.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return PREFIX + encode(nextLong());
+    }
+
+    long nextLong() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = lastTimeAndSequence.updateAndGet(last -> Math.max(now, last + 1));
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
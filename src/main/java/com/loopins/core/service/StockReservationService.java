@@ -0,0 +1,196 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.StockReservation;
+import com.loopins.core.domain.enums.ReservationStatus;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Holds product stock for orders between checkout and payment.
+ * Stock is moved with conditional single-statement updates, so concurrent checkouts of
+ * the same product never lose updates and only lock a product row for one statement.
+ * Products are always updated in product ID order to avoid deadlocks between orders.
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock >= ?";
+    private static final String RESTORE_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private final StockReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final HotSkuLanes hotSkuLanes;
+    private final Duration holdTtl;
+
+    private final Counter rejected;
+    private final Counter released;
+    private final Counter oversold;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   HotSkuLanes hotSkuLanes,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${stock.reservation.hold-ttl:PT30M}") Duration holdTtl) {
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.hotSkuLanes = hotSkuLanes;
+        this.holdTtl = holdTtl;
+        this.rejected = Counter.builder("stock.reservation.rejected")
+                .description("Checkouts rejected because a product was out of stock")
+                .register(meterRegistry);
+        this.released = Counter.builder("stock.reservation.released")
+                .description("Reservations returned to stock by cancellation or expiry")
+                .register(meterRegistry);
+        this.oversold = Counter.builder("stock.reservation.oversold")
+                .description("Paid reservations whose released stock could not be taken back")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves stock for every line of the order, all or nothing.
+     * Must run inside the transaction that saves the order, so a rejection rolls the order back.
+     * Products with an open hot SKU lane are granted by the lane; stock granted that way is
+     * credited back to the lane if the transaction does not commit.
+     */
+    @Transactional
+    public List<StockReservation> reserve(Order order) {
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        order.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        Map<String, Integer> granted = new LinkedHashMap<>();
+        creditOnRollback(granted);
+        SortedMap<String, Integer> regular = new TreeMap<>();
+        List<String> unavailable = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            HotSkuLanes.Grant grant = hotSkuLanes.isHot(productId)
+                    ? hotSkuLanes.tryReserve(productId, quantity)
+                    : HotSkuLanes.Grant.REGULAR;
+            switch (grant) {
+                case GRANTED -> granted.put(productId, quantity);
+                case REGULAR -> regular.put(productId, quantity);
+            }
+        });
+
+        if (!regular.isEmpty()) {
+            List<Object[]> batch = new ArrayList<>(regular.size());
+            regular.forEach((productId, quantity) -> batch.add(new Object[]{quantity, productId, quantity}));
+            int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, batch);
+
+            int i = 0;
+            for (String productId : regular.keySet()) {
+                if (updated[i++] == 0) {
+                    unavailable.add(productId);
+                }
+            }
+        }
+        if (!unavailable.isEmpty()) {
+            rejected.increment();
+            throw new BusinessException("Insufficient stock for products: " + String.join(", ", unavailable));
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> reservations.add(StockReservation.builder()
+                .orderId(order.getId())
+                .productId(productId)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build()));
+        log.debug("Reserved stock for order {}: {}", order.getId(), quantities);
+        return reservationRepository.saveAll(reservations);
+    }
+
+    /**
+     * Turns the holds of a paid order into sales.
+     * Holds the sweeper already released are taken back if the stock is still there;
+     * otherwise the order stays paid and the shortfall is logged for manual follow-up.
+     */
+    @Transactional
+    public void consume(String orderId) {
+        for (StockReservation reservation : reservationRepository.lockByOrderId(orderId)) {
+            if (reservation.getStatus() == ReservationStatus.RELEASED
+                    && jdbcTemplate.update(RESERVE_SQL, reservation.getQuantity(),
+                            reservation.getProductId(), reservation.getQuantity()) == 0) {
+                oversold.increment();
+                log.warn("Order {} was paid after its hold on {} x{} expired and the stock is gone",
+                        orderId, reservation.getProductId(), reservation.getQuantity());
+                continue;
+            }
+            reservation.setStatus(ReservationStatus.CONSUMED);
+        }
+    }
+
+    /**
+     * Returns the held stock of a cancelled order.
+     */
+    @Transactional
+    public void release(String orderId) {
+        restore(reservationRepository.lockByOrderId(orderId).stream()
+                .filter(StockReservation::isHeld)
+                .toList());
+    }
+
+    /**
+     * Returns the expired holds of the given unpaid orders. Holds locked by a concurrent
+     * payment confirmation are skipped. Returns the number of reservations released.
+     */
+    @Transactional
+    public int releaseExpired(List<String> orderIds, LocalDateTime now) {
+        List<StockReservation> expired = reservationRepository.lockExpiredHolds(orderIds, now);
+        restore(expired);
+        return expired.size();
+    }
+
+    private void creditOnRollback(Map<String, Integer> granted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    granted.forEach(hotSkuLanes::credit);
+                }
+            }
+        });
+    }
+
+    private void restore(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        reservations.forEach(r -> quantities.merge(r.getProductId(), r.getQuantity(), Integer::sum));
+
+        List<Object[]> batch = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            batch.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(RESTORE_SQL, batch);
+
+        reservations.forEach(r -> r.setStatus(ReservationStatus.RELEASED));
+        released.increment(reservations.size());
+    }
+}
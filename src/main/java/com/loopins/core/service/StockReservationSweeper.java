@@ -0,0 +1,69 @@
+package com.loopins.core.service;
+
+import com.loopins.core.repository.StockReservationRepository;
+import com.loopins.core.repository.StockReservationRepository.ExpiredHold;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically returns stock held by orders that never reached PAID before their hold expired,
+ * and moves orders a stopped checkout left in DRAFT on to CREATED.
+ * Orders are released chunk by chunk, each chunk in its own short transaction, walking the holds
+ * in expiry order so that a chunk whose holds were all locked does not end the run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stock.reservation.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class StockReservationSweeper {
+
+    private final OrderPlacementService orderPlacementService;
+    private final StockReservationRepository reservationRepository;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Timer runTimer;
+
+    public StockReservationSweeper(OrderPlacementService orderPlacementService,
+                                   StockReservationRepository reservationRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${stock.reservation.sweeper.chunk-size:200}") int chunkSize,
+                                   @Value("${stock.reservation.sweeper.max-chunks-per-run:50}") int maxChunksPerRun) {
+        this.orderPlacementService = orderPlacementService;
+        this.reservationRepository = reservationRepository;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.runTimer = Timer.builder("stock.reservation.sweeper.run")
+                .description("Duration of a stock reservation sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.sweeper.interval:PT1M}",
+            initialDelayString = "${stock.reservation.sweeper.initial-delay:PT1M}")
+    public void sweep() {
+        runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int released = 0;
+            List<ExpiredHold> holds = reservationRepository.findExpiredHolds(now, chunkSize);
+            for (int chunk = 0; chunk < maxChunksPerRun && !holds.isEmpty(); chunk++) {
+                List<String> orderIds = holds.stream().map(ExpiredHold::getOrderId).distinct().toList();
+                // Holds locked by payment confirmations in flight are skipped and left for the next run
+                released += orderPlacementService.releaseExpiredHolds(orderIds, now);
+                if (holds.size() < chunkSize) {
+                    break;
+                }
+                ExpiredHold last = holds.get(holds.size() - 1);
+                holds = reservationRepository.findExpiredHoldsAfter(now, last.getExpiresAt(), last.getOrderId(), chunkSize);
+            }
+            if (released > 0) {
+                log.info("Released {} expired stock reservations", released);
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.loopins.core.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by additive increase / multiplicative decrease.
+ * The limit grows by one after a successful request made while at least half the limit was in use,
+ * and is multiplied by the backoff ratio after a request that was too slow or failed with a 5xx,
+ * so it settles just below the concurrency at which latency starts to degrade.
+ */
+public final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMillis) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    }
+
+    /**
+     * Takes a slot if one is free. Every successful acquire must be followed by {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes a slot regardless of the limit, for requests that must never be shed.
+     */
+    public void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Returns a slot and adjusts the limit from the outcome of the request.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (inFlightAtCompletion * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
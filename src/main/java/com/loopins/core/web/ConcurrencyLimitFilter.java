@@ -0,0 +1,168 @@
+package com.loopins.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loopins.core.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptive concurrency limiting per route group. Each group has its own {@link AimdLimit};
+ * requests beyond the current limit are answered at once with 503 and Retry-After instead of
+ * queueing behind a slow database or fulfillment service.
+ * Payment callbacks are counted but never shed, so confirmed payments are always recorded.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PROPERTY_PREFIX = "concurrency-limit.groups.";
+
+    // Cart event streams are long-lived and hold no database connection while open
+    private static final Pattern EXCLUDED = Pattern.compile("/carts/[^/]+/events");
+
+    private final List<RouteGroup> groups;
+    private final ObjectMapper objectMapper;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${concurrency-limit.retry-after:PT1S}") Duration retryAfter) {
+        this.objectMapper = objectMapper;
+        this.retryAfter = retryAfter;
+        this.groups = List.of(
+                new RouteGroup("payment-callback", false, null,
+                        Pattern.compile("/payments/callback|/orders/[^/]+/payment-(confirmed|failed)"),
+                        environment, meterRegistry),
+                // Only the requests that place orders or create payments; ticket polls and quotes are cheap
+                new RouteGroup("checkout", true, HttpMethod.POST,
+                        Pattern.compile("/orders/checkout(/async)?|/orders/[^/]+/retry-payment|/payments/snap/[^/]+"),
+                        environment, meterRegistry),
+                new RouteGroup("cart", true, null,
+                        Pattern.compile("/carts(/.*)?"),
+                        environment, meterRegistry)
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return groupFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = groupFor(request);
+
+        if (group.sheddable) {
+            if (!group.limit.tryAcquire()) {
+                group.rejected.increment();
+                reject(request, response, group);
+                return;
+            }
+        } else {
+            group.limit.acquire();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            group.limit.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RouteGroup group) throws IOException {
+        log.debug("Shed {} request {}: {} in flight, limit {}",
+                group.name, request.getRequestURI(), group.limit.getInFlight(), group.limit.getLimit());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(
+                "Service is busy. Please try again shortly.", request.getRequestURI()));
+    }
+
+    private RouteGroup groupFor(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        if (EXCLUDED.matcher(path).matches()) {
+            return null;
+        }
+        for (RouteGroup group : groups) {
+            if ((group.method == null || group.method.matches(request.getMethod()))
+                    && group.routes.matcher(path).matches()) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static final class RouteGroup {
+
+        private final String name;
+        private final boolean sheddable;
+        private final HttpMethod method;
+        private final Pattern routes;
+        private final AimdLimit limit;
+        private final Counter rejected;
+
+        // A null method matches requests of any method
+        private RouteGroup(String name, boolean sheddable, HttpMethod method, Pattern routes,
+                           Environment environment, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.sheddable = sheddable;
+            this.method = method;
+            this.routes = routes;
+            String prefix = PROPERTY_PREFIX + name + ".";
+            this.limit = new AimdLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 4),
+                    environment.getProperty(prefix + "max-limit", Integer.class, 200),
+                    environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9),
+                    environment.getProperty(prefix + "latency-threshold", Duration.class, Duration.ofSeconds(2)).toMillis());
+
+            Gauge.builder("http.concurrency.limit", limit, AimdLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in_flight", limit, AimdLimit::getInFlight)
+                    .description("Requests currently in flight")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("http.concurrency.rejected")
+                    .description("Requests shed because the concurrency limit was reached")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+    }
+}
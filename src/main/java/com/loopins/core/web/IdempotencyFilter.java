@@ -0,0 +1,274 @@
+package com.loopins.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loopins.core.cache.IdempotencyStore;
+import com.loopins.core.cache.IdempotencyStore.StoredResponse;
+import com.loopins.core.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Honors the Idempotency-Key header on checkout and payment creation.
+ * The first completed 2xx response for a key is stored and replayed byte for byte to
+ * repeats with the same request body. Duplicates arriving while the first request is
+ * still running wait for it and receive its response instead of executing again.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Endpoints that honor the Idempotency-Key header, relative to the context path
+    private static final List<Pattern> IDEMPOTENT_ENDPOINTS = List.of(
+            Pattern.compile("/orders/checkout"),
+            Pattern.compile("/orders/checkout/async"),
+            Pattern.compile("/orders/[^/]+/retry-payment"),
+            Pattern.compile("/payments/snap/[^/]+")
+    );
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration inFlightTimeout;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${idempotency.in-flight-timeout:PT30S}") Duration inFlightTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.inFlightTimeout = inFlightTimeout;
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.joined = requests(meterRegistry, "joined");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = pathWithinApplication(request);
+        return IDEMPOTENT_ENDPOINTS.stream().noneMatch(pattern -> pattern.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = DigestUtils.md5DigestAsHex(cachedRequest.body);
+        String key = request.getMethod() + " " + pathWithinApplication(request) + " " + idempotencyKey;
+
+        while (true) {
+            Optional<StoredResponse> stored = store.find(key);
+            if (stored.isPresent()) {
+                replayed.increment();
+                replay(request, response, stored.get(), requestHash);
+                return;
+            }
+
+            CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                executed.increment();
+                execute(cachedRequest, response, filterChain, key, requestHash, execution);
+                return;
+            }
+
+            try {
+                StoredResponse result = running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                joined.increment();
+                replay(request, response, result, requestHash);
+                return;
+            } catch (ExecutionException e) {
+                // The first request failed without a response; run this one instead
+                log.debug("In-flight request for idempotency key {} failed, executing duplicate", key);
+            } catch (TimeoutException e) {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for in-flight request", e);
+            }
+        }
+    }
+
+    private void execute(CachedBodyRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String key,
+                         String requestHash,
+                         CompletableFuture<StoredResponse> execution) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            StoredResponse result = new StoredResponse(requestHash, wrapper.getStatus(),
+                    wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray());
+            if (HttpStatus.valueOf(result.status()).is2xxSuccessful()) {
+                try {
+                    store.save(key, result);
+                } catch (RuntimeException e) {
+                    log.warn("Could not store response for idempotency key {}: {}", key, e.getMessage());
+                }
+            }
+            execution.complete(result);
+        } catch (IOException | ServletException | RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletRequest request,
+                        HttpServletResponse response,
+                        StoredResponse stored,
+                        String requestHash) throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY_HEADER + " was already used with a different request body");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletRequest request,
+                            HttpServletResponse response,
+                            HttpStatus status,
+                            String error) throws IOException {
+        log.warn("Rejected idempotent request {}: {}", request.getRequestURI(), error);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(error, request.getRequestURI()));
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads the request body up front so it can be hashed and then read again by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Entities allocate IDs from these sequences in blocks of 50 (Hibernate pooled optimizer),
+-- so inserts no longer need a round trip each to learn the generated key and can be batched.
+-- The column defaults stay, so plain SQL inserts keep working.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cart_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cart_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payment_callback_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stock_reservation_id_seq INCREMENT BY 50;
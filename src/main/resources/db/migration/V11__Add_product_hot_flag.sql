@@ -0,0 +1,3 @@
+-- Flags products under flash-sale load; their stock is reserved through in-memory hot SKU lanes
+
+ALTER TABLE products ADD COLUMN hot BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,22 @@
+-- Read model for order list views: one narrow row per order, kept in step with orders
+-- by the services that change order state. Can be regenerated with the admin rebuild endpoint.
+
+CREATE TABLE order_summary (
+    order_id VARCHAR(50) PRIMARY KEY REFERENCES orders(id) ON DELETE CASCADE,
+    user_id BIGINT,
+    guest_email VARCHAR(255),
+    status VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    item_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_order_summary_user_created_at ON order_summary(user_id, created_at DESC, order_id DESC);
+CREATE INDEX idx_order_summary_status_created_at ON order_summary(status, created_at DESC, order_id DESC);
+
+INSERT INTO order_summary (order_id, user_id, guest_email, status, total_amount, item_count, created_at, updated_at)
+SELECT o.id, o.user_id, o.guest_email, o.status, o.total_amount,
+       (SELECT COUNT(*) FROM order_item i WHERE i.order_id = o.id),
+       o.created_at, o.updated_at
+FROM orders o;
@@ -0,0 +1,3 @@
+-- Location header of the stored response, replayed with it (e.g. the ticket of an async checkout)
+
+ALTER TABLE idempotency_record ADD COLUMN location VARCHAR(2048);
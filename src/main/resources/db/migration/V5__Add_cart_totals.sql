@@ -0,0 +1,17 @@
+-- V5__Add_cart_totals.sql
+-- Denormalized running totals on cart, maintained incrementally by the application
+
+-- 1. Add subtotal and item count columns
+ALTER TABLE cart ADD COLUMN subtotal DECIMAL(19, 2) NOT NULL DEFAULT 0;
+ALTER TABLE cart ADD COLUMN item_count INTEGER NOT NULL DEFAULT 0;
+
+-- 2. Backfill totals for existing carts
+UPDATE cart c
+SET subtotal = totals.subtotal,
+    item_count = totals.item_count
+FROM (
+    SELECT cart_id, SUM(unit_price * quantity) AS subtotal, SUM(quantity) AS item_count
+    FROM cart_item
+    GROUP BY cart_id
+) totals
+WHERE totals.cart_id = c.id;
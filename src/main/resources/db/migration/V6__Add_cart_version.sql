@@ -0,0 +1,4 @@
+-- V6__Add_cart_version.sql
+-- Version column for optimistic locking of concurrent cart writes
+
+ALTER TABLE cart ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- V7__Add_guest_cart_reaper_index.sql
+-- Lets the guest cart reaper find idle guest carts without scanning user carts
+
+CREATE INDEX idx_cart_guest_updated_at ON cart(updated_at) WHERE user_id IS NULL;
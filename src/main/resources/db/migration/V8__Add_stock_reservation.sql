@@ -0,0 +1,17 @@
+-- Stock held for an order between checkout and payment.
+-- HELD rows have already been subtracted from products.stock; the sweeper puts
+-- expired holds back for orders that never reach PAID.
+
+CREATE TABLE stock_reservation (
+    id BIGSERIAL PRIMARY KEY,
+    order_id VARCHAR(50) NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    product_id VARCHAR(100) NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'HELD',
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_stock_reservation_order_id ON stock_reservation(order_id);
+CREATE INDEX idx_stock_reservation_held_expires_at ON stock_reservation(expires_at) WHERE status = 'HELD';
@@ -0,0 +1,13 @@
+-- First completed response per Idempotency-Key, replayed for client retries
+
+CREATE TABLE idempotency_record (
+    id VARCHAR(400) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record(expires_at);
@@ -0,0 +1,85 @@
+package com.loopins.core.cache;
+
+import com.loopins.core.domain.enums.CartStatus;
+import com.loopins.core.dto.response.CartResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshots are cached only when newer than what the cache has stored or evicted for the cart,
+ * so a read that loaded a cart before a checkout cannot bring it back after the eviction.
+ */
+class CartCacheTest {
+
+    private static final long CART_ID = 7L;
+    private static final String SESSION_ID = "session-7";
+
+    private CartCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CartCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void populate_AfterEviction_ShouldRefuseSnapshotReadBeforeIt() {
+        cache.populate(cart(3L, CartStatus.ACTIVE));
+
+        cache.evict(CART_ID, 3L);
+        cache.populate(cart(3L, CartStatus.ACTIVE));
+
+        assertThat(cache.get(CART_ID)).isNull();
+        assertThat(cache.getActiveBySessionId(SESSION_ID)).isNull();
+    }
+
+    @Test
+    void populate_AfterEviction_ShouldAcceptSnapshotReadAfterIt() {
+        cache.evict(CART_ID, 3L);
+
+        cache.populate(cart(4L, CartStatus.CHECKED_OUT));
+
+        assertThat(cache.get(CART_ID).getVersion()).isEqualTo(4L);
+        assertThat(cache.getActiveBySessionId(SESSION_ID)).isNull();
+    }
+
+    @Test
+    void evict_WithoutVersion_ShouldRefuseEverySnapshot() {
+        cache.evict(CART_ID, null);
+
+        cache.populate(cart(9L, CartStatus.ACTIVE));
+
+        assertThat(cache.get(CART_ID)).isNull();
+    }
+
+    @Test
+    void populate_ShouldNotReplaceNewerSnapshot() {
+        cache.put(cart(5L, CartStatus.ACTIVE));
+
+        cache.populate(cart(4L, CartStatus.ACTIVE));
+
+        assertThat(cache.get(CART_ID).getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void put_ShouldNotReplaceNewerSnapshot() {
+        cache.put(cart(6L, CartStatus.ACTIVE));
+
+        cache.put(cart(5L, CartStatus.ACTIVE));
+
+        assertThat(cache.getActiveBySessionId(SESSION_ID).getVersion()).isEqualTo(6L);
+    }
+
+    private static CartResponse cart(long version, CartStatus status) {
+        return CartResponse.builder()
+                .id(CART_ID)
+                .sessionId(SESSION_ID)
+                .status(status)
+                .version(version)
+                .build();
+    }
+}
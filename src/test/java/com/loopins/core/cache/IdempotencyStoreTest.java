@@ -0,0 +1,74 @@
+package com.loopins.core.cache;
+
+import com.loopins.core.cache.IdempotencyStore.StoredResponse;
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.domain.entity.IdempotencyRecord;
+import com.loopins.core.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stored responses are insert-only: a second instance storing the same key never overwrites
+ * the response the first one stored.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    @Test
+    void save_ShouldKeepResponseStoredFirstByAnotherInstance() {
+        String key = "POST /orders/checkout concurrent";
+        newInstance().save(key, response("first"));
+
+        newInstance().save(key, response("second"));
+
+        assertThat(newInstance().find(key))
+                .hasValueSatisfying(stored -> assertThat(body(stored)).isEqualTo("first"));
+    }
+
+    @Test
+    void save_ShouldReplaceExpiredRecordNotYetPurged() {
+        String key = "POST /orders/checkout expired";
+        repository.save(IdempotencyRecord.builder()
+                .id(key)
+                .requestHash("old-hash")
+                .statusCode(201)
+                .body("expired")
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        newInstance().save(key, response("fresh"));
+
+        assertThat(newInstance().find(key))
+                .hasValueSatisfying(stored -> assertThat(body(stored)).isEqualTo("fresh"));
+    }
+
+    // Each instance has its own in-memory LRU, so reads from a new one come from the database
+    private IdempotencyStore newInstance() {
+        return new IdempotencyStore(repository, new SimpleMeterRegistry(), Duration.ofHours(1), 100);
+    }
+
+    private static StoredResponse response(String body) {
+        return new StoredResponse("hash", 201, "application/json", null, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(StoredResponse stored) {
+        return new String(stored.body(), StandardCharsets.UTF_8);
+    }
+}
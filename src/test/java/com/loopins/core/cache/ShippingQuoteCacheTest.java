@@ -0,0 +1,97 @@
+package com.loopins.core.cache;
+
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.client.dto.ShippingQuoteRequest;
+import com.loopins.core.client.dto.ShippingQuoteResponse;
+import com.loopins.core.domain.value.Money;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShippingQuoteCacheTest {
+
+    @Mock
+    private FulfillmentClient fulfillmentClient;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    }
+
+    private ShippingQuoteCache cache(Duration ttl) {
+        return new ShippingQuoteCache(fulfillmentClient, circuitBreakerRegistry, Runnable::run,
+                new SimpleMeterRegistry(), ttl, Duration.ofHours(24), 100, 1.0);
+    }
+
+    @Test
+    void getQuote_ShouldCallFulfillmentOncePerRouteAndWeightBucket() {
+        when(fulfillmentClient.getShippingQuote(any())).thenReturn(quote(15000));
+        ShippingQuoteCache cache = cache(Duration.ofHours(1));
+
+        cache.getQuote(request("Jakarta", 0.4));
+        ShippingQuoteResponse second = cache.getQuote(request("jakarta ", 0.9));
+
+        assertThat(second.getPrice()).isEqualTo(Money.of(15000));
+        ArgumentCaptor<ShippingQuoteRequest> sent = ArgumentCaptor.forClass(ShippingQuoteRequest.class);
+        verify(fulfillmentClient, times(1)).getShippingQuote(sent.capture());
+        assertThat(sent.getValue().getWeightInKg()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getQuote_ShouldNotCacheFailedQuotes() {
+        when(fulfillmentClient.getShippingQuote(any()))
+                .thenReturn(ShippingQuoteResponse.builder().success(false).build())
+                .thenReturn(quote(15000));
+        ShippingQuoteCache cache = cache(Duration.ofHours(1));
+
+        assertThat(cache.getQuote(request("Jakarta", 1.0)).isSuccess()).isFalse();
+        assertThat(cache.getQuote(request("Jakarta", 1.0)).isSuccess()).isTrue();
+        verify(fulfillmentClient, times(2)).getShippingQuote(any());
+    }
+
+    @Test
+    void getQuote_WhenExpiredAndCircuitOpen_ShouldServeStaleQuote() {
+        when(fulfillmentClient.getShippingQuote(any()))
+                .thenReturn(quote(15000))
+                .thenReturn(ShippingQuoteResponse.builder().success(false).build());
+        ShippingQuoteCache cache = cache(Duration.ZERO);
+        cache.getQuote(request("Jakarta", 1.0));
+
+        circuitBreakerRegistry.circuitBreaker("fulfillment").transitionToOpenState();
+        ShippingQuoteResponse response = cache.getQuote(request("Jakarta", 1.0));
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getPrice()).isEqualTo(Money.of(15000));
+    }
+
+    private static ShippingQuoteRequest request(String destination, double weightInKg) {
+        return ShippingQuoteRequest.builder()
+                .originCity("Bandung")
+                .destinationCity(destination)
+                .weightInKg(weightInKg)
+                .courierCode("jne")
+                .build();
+    }
+
+    private static ShippingQuoteResponse quote(long price) {
+        return ShippingQuoteResponse.builder()
+                .success(true)
+                .courierCode("jne")
+                .price(Money.of(price))
+                .build();
+    }
+}
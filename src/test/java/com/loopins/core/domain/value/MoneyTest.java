@@ -0,0 +1,39 @@
+package com.loopins.core.domain.value;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldRoundDecimalAmountsHalfUpToMinorUnits() {
+        assertThat(Money.of(new BigDecimal("15000")).getMinorUnits()).isEqualTo(1_500_000L);
+        assertThat(Money.of(new BigDecimal("0.125")).getMinorUnits()).isEqualTo(13L);
+        assertThat(Money.of((BigDecimal) null)).isNull();
+    }
+
+    @Test
+    void toBigDecimal_ShouldKeepTwoDecimalPlaces() {
+        assertThat(Money.of(15000).toBigDecimal()).isEqualTo(new BigDecimal("15000.00"));
+        assertThat(Money.ofMinor(1).toString()).isEqualTo("0.01");
+    }
+
+    @Test
+    void arithmetic_ShouldBeExact() {
+        Money lineTotal = Money.of(new BigDecimal("12500.50")).times(3);
+
+        assertThat(lineTotal).isEqualTo(Money.of(new BigDecimal("37501.50")));
+        assertThat(lineTotal.plus(Money.of(15000)).minus(Money.of(15000))).isEqualTo(lineTotal);
+        assertThat(Money.of(99999).toMajorUnits()).isEqualTo(99999L);
+    }
+
+    @Test
+    void times_WhenOverflowing_ShouldThrow() {
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).times(2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
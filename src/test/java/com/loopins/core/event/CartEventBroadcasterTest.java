@@ -0,0 +1,216 @@
+package com.loopins.core.event;
+
+import com.loopins.core.dto.response.CartResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartEventBroadcasterTest {
+
+    private static final long CART_ID = 42L;
+    private static final Object CLOSED = "closed";
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private CartEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::release);
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void onCartChanged_ShouldNeverSendAnOlderVersionAfterANewerOne() throws InterruptedException {
+        broadcaster = broadcaster(4, 100);
+        RecordingEmitter emitter = subscribe(1L);
+
+        broadcaster.onCartChanged(changed(3L));
+        broadcaster.onCartChanged(changed(2L));
+        broadcaster.onCartChanged(changed(4L));
+
+        List<Object> sent = receiveUntil(emitter, 4L);
+        assertThat(sent).doesNotContain(2L);
+        assertThat(sent.stream().map(Long.class::cast).toList()).isSorted();
+    }
+
+    @Test
+    void slowSubscriber_ShouldReceiveOnlyTheNewestUpdateQueuedWhileBusy() throws InterruptedException {
+        broadcaster = broadcaster(4, 100);
+        RecordingEmitter emitter = subscribe(1L);
+        assertThat(next(emitter)).isEqualTo(1L);
+        emitter.blockOn(2L);
+
+        broadcaster.onCartChanged(changed(2L));
+        emitter.awaitBlocked();
+        for (long version = 3; version <= 10; version++) {
+            broadcaster.onCartChanged(changed(version));
+        }
+        emitter.release();
+
+        assertThat(next(emitter)).isEqualTo(2L);
+        assertThat(next(emitter)).isEqualTo(10L);
+        assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void slowSubscriber_ShouldNotHoldUpOtherSubscribersOfTheCart() throws InterruptedException {
+        broadcaster = broadcaster(2, 100);
+        RecordingEmitter slow = subscribe(1L);
+        RecordingEmitter fast = subscribe(1L);
+        assertThat(next(slow)).isEqualTo(1L);
+        assertThat(next(fast)).isEqualTo(1L);
+        slow.blockOn(2L);
+
+        broadcaster.onCartChanged(changed(2L));
+        slow.awaitBlocked();
+        broadcaster.onCartChanged(changed(3L));
+
+        assertThat(receiveUntil(fast, 3L)).isNotEmpty();
+        slow.release();
+        assertThat(receiveUntil(slow, 3L)).startsWith(2L);
+    }
+
+    @Test
+    void closedCart_ShouldEndStreamAndIgnoreLaterUpdates() throws InterruptedException {
+        broadcaster = broadcaster(4, 100);
+        RecordingEmitter emitter = subscribe(1L);
+        assertThat(next(emitter)).isEqualTo(1L);
+
+        broadcaster.onCartChanged(new CartChangedEvent(this, CART_ID, null));
+        assertThat(next(emitter)).isEqualTo(CLOSED);
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        broadcaster.onCartChanged(changed(2L));
+        assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void fullQueue_ShouldCloseTheSubscriberThatDoesNotFit() throws InterruptedException {
+        broadcaster = broadcaster(1, 1);
+        RecordingEmitter busy = subscribe(1L, true);
+        busy.awaitBlocked();
+        RecordingEmitter queued = subscribe(1L);
+
+        RecordingEmitter rejected = subscribe(1L);
+
+        assertThat(rejected.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(rejected.sent).isEmpty();
+        busy.release();
+        assertThat(next(busy)).isEqualTo(1L);
+        assertThat(next(queued)).isEqualTo(1L);
+    }
+
+    private CartEventBroadcaster broadcaster(int threads, int queueCapacity) {
+        return new CartEventBroadcaster(new SimpleMeterRegistry(), Duration.ofMinutes(1), threads, queueCapacity) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return emitters.get(emitters.size() - 1);
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(long version) {
+        return subscribe(version, false);
+    }
+
+    private RecordingEmitter subscribe(long version, boolean blockFirstSend) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        if (blockFirstSend) {
+            emitter.blockOn(version);
+        }
+        emitters.add(emitter);
+        broadcaster.subscribe(cart(version));
+        return emitter;
+    }
+
+    private static CartChangedEvent changed(long version) {
+        return new CartChangedEvent(CartEventBroadcasterTest.class, CART_ID, cart(version));
+    }
+
+    private static CartResponse cart(long version) {
+        return CartResponse.builder().id(CART_ID).version(version).build();
+    }
+
+    private static Object next(RecordingEmitter emitter) throws InterruptedException {
+        Object sent = emitter.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(sent).as("event sent within 5s").isNotNull();
+        return sent;
+    }
+
+    private static List<Object> receiveUntil(RecordingEmitter emitter, Object last) throws InterruptedException {
+        List<Object> sent = new ArrayList<>();
+        Object event;
+        do {
+            event = next(emitter);
+            sent.add(event);
+        } while (!event.equals(last));
+        return sent;
+    }
+
+    /**
+     * Records the payload of each cart event instead of writing to a response; can hold the send
+     * of one version until released, like a client that stopped reading.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Object> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Long blockedVersion;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            Object payload = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(data -> data instanceof CartResponse || data instanceof Long)
+                    .findFirst()
+                    .orElse(null);
+            if (payload instanceof CartResponse cart) {
+                if (cart.getVersion().equals(blockedVersion)) {
+                    blocked.countDown();
+                    try {
+                        released.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                sent.add(cart.getVersion());
+            } else if (payload != null) {
+                sent.add(CLOSED);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        void blockOn(long version) {
+            blockedVersion = version;
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).as("send blocked").isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
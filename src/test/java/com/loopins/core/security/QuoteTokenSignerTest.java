@@ -0,0 +1,54 @@
+package com.loopins.core.security;
+
+import com.loopins.core.security.QuoteTokenSigner.QuoteClaims;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteTokenSignerTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final QuoteClaims CLAIMS =
+            new QuoteClaims(42L, 1_500_000L, "3f9a", NOW.plusSeconds(600).getEpochSecond());
+
+    private final QuoteTokenSigner signer = new QuoteTokenSigner("test-secret");
+
+    @Test
+    void verify_ShouldReturnClaimsOfSignedToken() {
+        String token = signer.sign(CLAIMS);
+
+        assertThat(signer.verify(token, NOW)).contains(CLAIMS);
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredToken() {
+        String token = signer.sign(CLAIMS);
+
+        assertThat(signer.verify(token, NOW.plusSeconds(600))).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedClaims() {
+        String token = signer.sign(CLAIMS);
+        String forged = signer.sign(new QuoteClaims(42L, 0L, "3f9a", CLAIMS.expiresAt()));
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThat(signer.verify(tampered, NOW)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldRejectTokenSignedWithAnotherSecret() {
+        String token = new QuoteTokenSigner("other-secret").sign(CLAIMS);
+
+        assertThat(signer.verify(token, NOW)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldRejectMalformedToken() {
+        assertThat(signer.verify("not-a-token", NOW)).isEmpty();
+        assertThat(signer.verify("bm90.c2ln!", NOW)).isEmpty();
+        assertThat(signer.verify(".", NOW)).isEmpty();
+    }
+}
@@ -0,0 +1,162 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.enums.CheckoutTicketStatus;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.dto.response.CheckoutResponse;
+import com.loopins.core.dto.response.CheckoutTicketResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.exception.ResourceNotFoundException;
+import com.loopins.core.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncCheckoutServiceTest {
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private OrderPlacementService orderPlacementService;
+
+    private AsyncCheckoutService asyncCheckoutService;
+
+    @AfterEach
+    void tearDown() {
+        asyncCheckoutService.shutdown();
+    }
+
+    private AsyncCheckoutService service(int queueCapacity) {
+        return service(queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private AsyncCheckoutService service(int queueCapacity, Duration shutdownTimeout) {
+        asyncCheckoutService = new AsyncCheckoutService(checkoutService, orderPlacementService,
+                new SimpleMeterRegistry(), 1, queueCapacity, Duration.ofHours(1), Duration.ofSeconds(5),
+                shutdownTimeout);
+        return asyncCheckoutService;
+    }
+
+    @Test
+    void submit_ShouldQueueCheckoutAndExposeResultOnTicket() {
+        CheckoutResponse checkout = CheckoutResponse.builder().orderId("ORDER-1").status("PAYMENT_PENDING").build();
+        when(checkoutService.checkout(any())).thenReturn(checkout);
+        AsyncCheckoutService service = service(10);
+
+        CheckoutTicketResponse ticket = service.submit(request(1L));
+
+        assertThat(ticket.getStatus()).isIn(CheckoutTicketStatus.QUEUED, CheckoutTicketStatus.PROCESSING,
+                CheckoutTicketStatus.COMPLETED);
+        CheckoutTicketResponse done = awaitDone(service, ticket.getTicket());
+        assertThat(done.getStatus()).isEqualTo(CheckoutTicketStatus.COMPLETED);
+        assertThat(done.getCheckout().getOrderId()).isEqualTo("ORDER-1");
+    }
+
+    @Test
+    void submit_WhenCheckoutFails_ShouldReportErrorOnTicket() {
+        when(checkoutService.checkout(any())).thenThrow(new BusinessException("Insufficient stock for products: PROD-1"));
+        AsyncCheckoutService service = service(10);
+
+        CheckoutTicketResponse done = awaitDone(service, service.submit(request(1L)).getTicket());
+
+        assertThat(done.getStatus()).isEqualTo(CheckoutTicketStatus.FAILED);
+        assertThat(done.getError()).contains("PROD-1");
+    }
+
+    @Test
+    void submit_WhenValidationFails_ShouldNotQueue() {
+        doThrow(new BusinessException("Cannot checkout an empty cart"))
+                .when(orderPlacementService).validateCheckout(any());
+        AsyncCheckoutService service = service(10);
+
+        assertThatThrownBy(() -> service.submit(request(1L))).isInstanceOf(BusinessException.class);
+        verifyNoInteractions(checkoutService);
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectWithRetryAfter() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(checkoutService.checkout(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return CheckoutResponse.builder().build();
+        });
+        AsyncCheckoutService service = service(1);
+
+        service.submit(request(1L));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        service.submit(request(2L));
+
+        assertThatThrownBy(() -> service.submit(request(3L)))
+                .isInstanceOf(ServiceBusyException.class)
+                .satisfies(e -> assertThat(((ServiceBusyException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(5)));
+        release.countDown();
+    }
+
+    @Test
+    void shutdown_ShouldFailCheckoutsThatNeverStarted() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        when(checkoutService.checkout(any())).thenAnswer(invocation -> {
+            running.countDown();
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CheckoutResponse.builder().build();
+        });
+        AsyncCheckoutService service = service(5, Duration.ofMillis(100));
+
+        service.submit(request(1L));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        String queued = service.submit(request(2L)).getTicket();
+
+        service.shutdown();
+
+        CheckoutTicketResponse ticket = service.getTicket(queued);
+        assertThat(ticket.getStatus()).isEqualTo(CheckoutTicketStatus.FAILED);
+        assertThat(ticket.getError()).contains("not started");
+        verify(checkoutService, times(1)).checkout(any());
+    }
+
+    @Test
+    void getTicket_WhenUnknown_ShouldThrowNotFound() {
+        AsyncCheckoutService service = service(10);
+
+        assertThatThrownBy(() -> service.getTicket("missing")).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static CheckoutRequest request(Long cartId) {
+        return CheckoutRequest.builder()
+                .cartId(cartId)
+                .shippingAddress("Jl. Test No. 1")
+                .guestEmail("guest@example.com")
+                .guestName("Guest")
+                .build();
+    }
+
+    private static CheckoutTicketResponse awaitDone(AsyncCheckoutService service, String ticket) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        CheckoutTicketResponse response = service.getTicket(ticket);
+        while ((response.getStatus() == CheckoutTicketStatus.QUEUED
+                || response.getStatus() == CheckoutTicketStatus.PROCESSING) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            response = service.getTicket(ticket);
+        }
+        return response;
+    }
+}
@@ -1,18 +1,24 @@
 package com.loopins.core.service;
 
+import com.loopins.core.cache.CartCache;
 import com.loopins.core.domain.entity.Cart;
 import com.loopins.core.domain.entity.CartItem;
+import com.loopins.core.domain.entity.Product;
 import com.loopins.core.domain.entity.User;
 import com.loopins.core.domain.enums.CartStatus;
 import com.loopins.core.domain.enums.UserRole;
+import com.loopins.core.domain.value.Money;
 import com.loopins.core.dto.request.AddCartItemRequest;
+import com.loopins.core.dto.request.BatchCartItemRequest;
 import com.loopins.core.dto.request.CreateCartRequest;
 import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.event.CartChangedEvent;
 import com.loopins.core.exception.BusinessException;
 import com.loopins.core.exception.ResourceNotFoundException;
 import com.loopins.core.mapper.CartMapper;
 import com.loopins.core.repository.CartItemRepository;
 import com.loopins.core.repository.CartRepository;
+import com.loopins.core.repository.ProductRepository;
 import com.loopins.core.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,9 +26,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,12 +54,22 @@ class CartServiceTest {
     @Mock
     private CartMapper cartMapper;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CartCache cartCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CartService cartService;
 
     private User testUser;
     private Cart testCart;
     private CartResponse testCartResponse;
+    private Product testProduct;
 
     @BeforeEach
     void setUp() {
@@ -76,6 +95,14 @@ class CartServiceTest {
                 .subtotal(BigDecimal.ZERO)
                 .totalItems(0)
                 .build();
+
+        testProduct = Product.builder()
+                .id("PROD-001")
+                .name("Test Product")
+                .price(Money.of(10000))
+                .stock(10)
+                .active(true)
+                .build();
     }
 
     @Test
@@ -124,6 +151,27 @@ class CartServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void getCart_WhenCached_ShouldNotQueryRepository() {
+        when(cartCache.get(1L)).thenReturn(testCartResponse);
+
+        CartResponse result = cartService.getCart(1L);
+
+        assertThat(result).isSameAs(testCartResponse);
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void getCart_WhenNotCached_ShouldLoadAndPopulateCache() {
+        when(cartRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testCart));
+        when(cartMapper.toResponse(testCart)).thenReturn(testCartResponse);
+
+        CartResponse result = cartService.getCart(1L);
+
+        assertThat(result).isSameAs(testCartResponse);
+        verify(cartCache).populate(testCartResponse);
+    }
+
     @Test
     void addItem_WhenCartIsActive_ShouldAddItem() {
         AddCartItemRequest request = AddCartItemRequest.builder()
@@ -132,6 +180,7 @@ class CartServiceTest {
                 .build();
 
         when(cartRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testCart));
+        when(productRepository.findByIdAndActiveTrue("PROD-001")).thenReturn(Optional.of(testProduct));
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
         when(cartMapper.toResponse(any(Cart.class))).thenReturn(testCartResponse);
 
@@ -162,10 +211,10 @@ class CartServiceTest {
         CartItem existingItem = CartItem.builder()
                 .id(1L)
                 .productId("PROD-001")
+                .unitPrice(Money.of(10000))
                 .quantity(1)
-                .cart(testCart)
                 .build();
-        testCart.getItems().add(existingItem);
+        testCart.addItem(existingItem);
 
         AddCartItemRequest request = AddCartItemRequest.builder()
                 .productId("PROD-001")
@@ -179,6 +228,7 @@ class CartServiceTest {
         cartService.addItem(1L, request);
 
         assertThat(existingItem.getQuantity()).isEqualTo(3);
+        assertThat(testCart.getSubtotal()).isEqualTo(Money.of(30000));
     }
 
     @Test
@@ -186,9 +236,9 @@ class CartServiceTest {
         CartItem item = CartItem.builder()
                 .id(1L)
                 .productId("PROD-001")
-                .cart(testCart)
+                .unitPrice(Money.of(10000))
                 .build();
-        testCart.getItems().add(item);
+        testCart.addItem(item);
 
         when(cartRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testCart));
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
@@ -197,7 +247,162 @@ class CartServiceTest {
         CartResponse result = cartService.removeItem(1L, 1L);
 
         assertThat(result).isNotNull();
+        assertThat(testCart.getSubtotal()).isEqualTo(Money.ZERO);
+        assertThat(testCart.getTotalItemCount()).isZero();
         verify(cartItemRepository).delete(item);
     }
-}
 
+    @Test
+    void applyBatch_ShouldResolveProductsOnceAndSaveOnce() {
+        Product otherProduct = Product.builder()
+                .id("PROD-002")
+                .name("Other Product")
+                .price(Money.of(5000))
+                .stock(10)
+                .active(true)
+                .build();
+
+        BatchCartItemRequest request = BatchCartItemRequest.builder()
+                .operations(List.of(
+                        op(BatchCartItemRequest.OperationType.ADD, "PROD-001", 2),
+                        op(BatchCartItemRequest.OperationType.ADD, "PROD-002", 1),
+                        op(BatchCartItemRequest.OperationType.ADD, "PROD-001", 1),
+                        op(BatchCartItemRequest.OperationType.UPDATE, "PROD-002", 4)))
+                .build();
+
+        when(cartRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testCart));
+        when(productRepository.findAllById(List.of("PROD-001", "PROD-002")))
+                .thenReturn(List.of(testProduct, otherProduct));
+        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(cartMapper.toResponse(any(Cart.class))).thenReturn(testCartResponse);
+
+        cartService.applyBatch(1L, request);
+
+        assertThat(testCart.getItems()).hasSize(2);
+        assertThat(testCart.getTotalItemCount()).isEqualTo(7);
+        assertThat(testCart.getSubtotal()).isEqualTo(Money.of(50000));
+        assertThat(testCart.hasConsistentTotals()).isTrue();
+        verify(productRepository, times(1)).findAllById(any());
+        verify(cartRepository, times(1)).save(testCart);
+        verify(eventPublisher).publishEvent(any(CartChangedEvent.class));
+    }
+
+    @Test
+    void applyBatch_WhenRemovingUnknownProduct_ShouldThrowException() {
+        BatchCartItemRequest request = BatchCartItemRequest.builder()
+                .operations(List.of(op(BatchCartItemRequest.OperationType.REMOVE, "PROD-404", null)))
+                .build();
+
+        when(cartRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testCart));
+
+        assertThatThrownBy(() -> cartService.applyBatch(1L, request))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    private static BatchCartItemRequest.Operation op(BatchCartItemRequest.OperationType type,
+                                                     String productId, Integer quantity) {
+        return BatchCartItemRequest.Operation.builder()
+                .type(type)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    @Test
+    void mergeGuestCartToUser_ShouldIncreaseExistingLinesAndSaveNewLinesInOneBatch() {
+        testCart.addItem(CartItem.builder()
+                .id(1L)
+                .productId("PROD-001")
+                .unitPrice(Money.of(10000))
+                .quantity(1)
+                .build());
+
+        Cart guestCart = Cart.builder()
+                .id(2L)
+                .sessionId("session-1")
+                .status(CartStatus.ACTIVE)
+                .items(new ArrayList<>())
+                .build();
+        guestCart.addItem(CartItem.builder()
+                .productId("PROD-001")
+                .productName("Test Product")
+                .unitPrice(Money.of(10000))
+                .quantity(2)
+                .build());
+        guestCart.addItem(CartItem.builder()
+                .productId("PROD-002")
+                .productName("Other Product")
+                .unitPrice(Money.of(5000))
+                .quantity(1)
+                .build());
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(cartRepository.findActiveCartBySessionId("session-1")).thenReturn(Optional.of(guestCart));
+        when(cartRepository.findActiveCartByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartMapper.toResponse(any(Cart.class))).thenReturn(testCartResponse);
+
+        cartService.mergeGuestCartToUser("session-1", 1L);
+
+        assertThat(testCart.findItemByProductId("PROD-001").getQuantity()).isEqualTo(3);
+        assertThat(testCart.findItemByProductId("PROD-002")).isNotNull();
+        assertThat(testCart.getTotalItemCount()).isEqualTo(4);
+        assertThat(guestCart.isActive()).isFalse();
+        verify(cartItemRepository).saveAll(List.of(testCart.findItemByProductId("PROD-002")));
+    }
+
+    @Test
+    void purgeAbandonedGuestCarts_ShouldDeleteOnlyLockedCartsAndEvictThem() {
+        LocalDateTime idleBefore = LocalDateTime.now().minusDays(7);
+        Cart staleCart = Cart.builder().id(10L).sessionId("session-10").build();
+        when(cartRepository.lockAbandonedGuestCarts(List.of(10L, 11L), idleBefore))
+                .thenReturn(List.of(staleCart));
+        when(cartItemRepository.deleteAllByCartIdIn(List.of(10L))).thenReturn(3);
+
+        CartService.PurgedCarts purged = cartService.purgeAbandonedGuestCarts(List.of(10L, 11L), idleBefore);
+
+        assertThat(purged.carts()).isEqualTo(1);
+        assertThat(purged.items()).isEqualTo(3);
+        verify(cartRepository).deleteAllByIdInBatch(List.of(10L));
+        verify(cartCache).evict(10L, null);
+        verify(cartCache, never()).evict(eq(11L), any());
+    }
+
+    @Test
+    void purgeAbandonedGuestCarts_WhenNothingLocked_ShouldNotDelete() {
+        LocalDateTime idleBefore = LocalDateTime.now().minusDays(7);
+        when(cartRepository.lockAbandonedGuestCarts(List.of(10L), idleBefore)).thenReturn(List.of());
+
+        CartService.PurgedCarts purged = cartService.purgeAbandonedGuestCarts(List.of(10L), idleBefore);
+
+        assertThat(purged.carts()).isZero();
+        verify(cartItemRepository, never()).deleteAllByCartIdIn(any());
+        verify(cartRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void getCartETag_WhenCached_ShouldUseCachedVersion() {
+        testCartResponse.setVersion(4L);
+        when(cartCache.get(1L)).thenReturn(testCartResponse);
+
+        assertThat(cartService.getCartETag(1L)).isEqualTo("\"cart-1-4\"");
+        verify(cartRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    void getCartETag_WhenNotCached_ShouldLookUpVersionOnly() {
+        when(cartRepository.findVersionById(1L)).thenReturn(Optional.of(2L));
+
+        assertThat(cartService.getCartETag(1L)).isEqualTo("\"cart-1-2\"");
+        verify(cartRepository, never()).findByIdWithItems(any());
+    }
+
+    @Test
+    void getCartETag_WhenCartNotFound_ShouldThrowException() {
+        when(cartRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cartService.getCartETag(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.loopins.core.service;
+
+import com.loopins.core.cache.CartCache;
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.domain.entity.Cart;
+import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.exception.ResourceNotFoundException;
+import com.loopins.core.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cart writes that lose an optimistic-lock race are retried by the cart-write retry,
+ * counted in the conflict metrics, and answered with 409 once the retries are used up.
+ * The conflict is injected where the write publishes its snapshot, inside the transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CartWriteRetryTest {
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private CartCache cartCache;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    private Long cartId;
+
+    @BeforeEach
+    void setUp() {
+        reset(cartCache);
+        cartId = cartRepository.save(Cart.builder()
+                .sessionId("retry-" + UUID.randomUUID())
+                .build()).getId();
+    }
+
+    @Test
+    void clearCart_ShouldRetryConflictAndSucceed() {
+        double conflictsBefore = conflicts();
+        double exhaustedBefore = exhausted();
+        doThrow(conflict()).doThrow(conflict()).doCallRealMethod().when(cartCache).put(any(CartResponse.class));
+
+        CartResponse response = cartService.clearCart(cartId);
+
+        assertThat(response.getId()).isEqualTo(cartId);
+        verify(cartCache, times(3)).put(any(CartResponse.class));
+        assertThat(conflicts() - conflictsBefore).isEqualTo(2.0);
+        assertThat(exhausted() - exhaustedBefore).isEqualTo(0.0);
+    }
+
+    @Test
+    void clearCart_ShouldGiveUpAfterMaxAttempts() {
+        double conflictsBefore = conflicts();
+        double exhaustedBefore = exhausted();
+        doThrow(conflict()).when(cartCache).put(any(CartResponse.class));
+
+        assertThatThrownBy(() -> cartService.clearCart(cartId))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(cartCache, times(MAX_ATTEMPTS)).put(any(CartResponse.class));
+        assertThat(conflicts() - conflictsBefore).isEqualTo(MAX_ATTEMPTS - 1.0);
+        assertThat(exhausted() - exhaustedBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    void clearCartEndpoint_ShouldAnswerConflictWhenRetriesAreExhausted() throws Exception {
+        doThrow(conflict()).when(cartCache).put(any(CartResponse.class));
+
+        mockMvc.perform(delete("/carts/{cartId}/items", cartId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void clearCart_ShouldNotRetryBusinessErrors() {
+        double conflictsBefore = conflicts();
+
+        assertThatThrownBy(() -> cartService.clearCart(-1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(conflicts()).isEqualTo(conflictsBefore);
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Cart.class, cartId);
+    }
+
+    private double conflicts() {
+        return meterRegistry.counter("cart.write.conflicts").count();
+    }
+
+    private double exhausted() {
+        return meterRegistry.counter("cart.write.conflicts.exhausted").count();
+    }
+}
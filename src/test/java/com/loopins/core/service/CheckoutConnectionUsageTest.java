@@ -0,0 +1,84 @@
+package com.loopins.core.service;
+
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.client.dto.PaymentInitiateResponse;
+import com.loopins.core.dto.request.AddCartItemRequest;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.dto.request.CreateCartRequest;
+import com.loopins.core.dto.request.CreateProductRequest;
+import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.dto.response.CheckoutResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checkout must not hold a pooled connection while it waits on the Fulfillment Service.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutConnectionUsageTest {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    @Test
+    void checkout_ShouldNotHoldConnectionWhileFulfillmentIsSlow() {
+        productService.createProduct(CreateProductRequest.builder()
+                .id("PROD-SLOW")
+                .name("Slow Product")
+                .price(new BigDecimal("10000"))
+                .stock(10)
+                .build());
+        CartResponse cart = cartService.createCart(CreateCartRequest.builder().sessionId("session-slow").build());
+        cartService.addItem(cart.getId(), AddCartItemRequest.builder().productId("PROD-SLOW").quantity(2).build());
+
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        AtomicInteger activeDuringRemoteCall = new AtomicInteger(-1);
+        when(fulfillmentClient.initiatePayment(any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            activeDuringRemoteCall.set(pool.getActiveConnections());
+            return PaymentInitiateResponse.builder()
+                    .success(true)
+                    .paymentReference("PAY-SLOW")
+                    .paymentUrl("http://localhost/pay/PAY-SLOW")
+                    .build();
+        });
+
+        CheckoutResponse response = checkoutService.checkout(CheckoutRequest.builder()
+                .cartId(cart.getId())
+                .shippingAddress("Jl. Test No. 1")
+                .guestEmail("guest@example.com")
+                .guestName("Guest")
+                .bypassShipping(true)
+                .build());
+
+        assertThat(response.getStatus()).isEqualTo("PAYMENT_PENDING");
+        assertThat(response.getPaymentReference()).isEqualTo("PAY-SLOW");
+        assertThat(activeDuringRemoteCall.get()).isZero();
+    }
+}
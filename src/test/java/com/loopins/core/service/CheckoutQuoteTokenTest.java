@@ -0,0 +1,153 @@
+package com.loopins.core.service;
+
+import com.loopins.core.cache.ShippingQuoteCache;
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.client.dto.ShippingQuoteResponse;
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.dto.response.CheckoutQuoteResponse;
+import com.loopins.core.dto.response.CheckoutResponse;
+import com.loopins.core.security.QuoteTokenSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * A checkout presenting a valid quote token reuses the quoted shipping fee; any other token
+ * falls back to a fresh shipping quote.
+ */
+@ExtendWith(MockitoExtension.class)
+class CheckoutQuoteTokenTest {
+
+    private static final Money QUOTED_FEE = Money.of(20000);
+    private static final Money FRESH_FEE = Money.of(25000);
+
+    @Mock
+    private OrderPlacementService orderPlacementService;
+
+    @Mock
+    private FulfillmentClient fulfillmentClient;
+
+    @Mock
+    private ShippingQuoteCache shippingQuoteCache;
+
+    private CheckoutService checkoutService;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new CheckoutService(orderPlacementService, fulfillmentClient, shippingQuoteCache,
+                new QuoteTokenSigner("test-secret"), new SimpleMeterRegistry(), Runnable::run);
+        ReflectionTestUtils.setField(checkoutService, "quoteTtl", Duration.ofMinutes(10));
+        when(orderPlacementService.placeOrder(any(), any()))
+                .thenAnswer(invocation -> order(invocation.getArgument(1)));
+    }
+
+    @Test
+    void checkout_WithValidToken_ShouldUseQuotedFeeWithoutQuotingShipping() {
+        String token = quoteToken(request(1L, "Bandung"));
+
+        CheckoutResponse response = checkoutService.checkout(withToken(request(1L, "Bandung"), token));
+
+        verify(shippingQuoteCache, never()).getQuote(any());
+        verify(orderPlacementService).placeOrder(any(), eq(QUOTED_FEE));
+        assertThat(response.getShippingFee()).isEqualByComparingTo(new BigDecimal("20000"));
+    }
+
+    @Test
+    void checkout_WithTokenForAnotherCart_ShouldQuoteShippingAgain() {
+        String token = quoteToken(request(1L, "Bandung"));
+
+        checkoutService.checkout(withToken(request(2L, "Bandung"), token));
+
+        verify(shippingQuoteCache).getQuote(any());
+        verify(orderPlacementService).placeOrder(any(), eq(FRESH_FEE));
+    }
+
+    @Test
+    void checkout_WithTokenForOtherShippingInputs_ShouldQuoteShippingAgain() {
+        String token = quoteToken(request(1L, "Bandung"));
+
+        checkoutService.checkout(withToken(request(1L, "Surabaya"), token));
+
+        verify(shippingQuoteCache).getQuote(any());
+        verify(orderPlacementService).placeOrder(any(), eq(FRESH_FEE));
+    }
+
+    @Test
+    void checkout_WithExpiredToken_ShouldQuoteShippingAgain() {
+        ReflectionTestUtils.setField(checkoutService, "quoteTtl", Duration.ofMinutes(-1));
+        String token = quoteToken(request(1L, "Bandung"));
+
+        checkoutService.checkout(withToken(request(1L, "Bandung"), token));
+
+        verify(shippingQuoteCache).getQuote(any());
+        verify(orderPlacementService).placeOrder(any(), eq(FRESH_FEE));
+    }
+
+    @Test
+    void checkout_WithForgedToken_ShouldQuoteShippingAgain() {
+        String token = new QuoteTokenSigner("other-secret").sign(
+                new QuoteTokenSigner.QuoteClaims(1L, 0L, "forged", Long.MAX_VALUE));
+        when(shippingQuoteCache.getQuote(any())).thenReturn(shippingQuote(FRESH_FEE));
+
+        checkoutService.checkout(withToken(request(1L, "Bandung"), token));
+
+        verify(shippingQuoteCache).getQuote(any());
+        verify(orderPlacementService).placeOrder(any(), eq(FRESH_FEE));
+    }
+
+    // Quotes with QUOTED_FEE, then makes any later fresh quote return FRESH_FEE
+    private String quoteToken(CheckoutRequest request) {
+        when(orderPlacementService.previewOrder(request)).thenReturn(order(Money.ZERO));
+        when(shippingQuoteCache.getQuote(any())).thenReturn(shippingQuote(QUOTED_FEE));
+        CheckoutQuoteResponse quote = checkoutService.quote(request);
+        assertThat(quote.getShippingFee()).isEqualByComparingTo(new BigDecimal("20000"));
+
+        lenient().doReturn(shippingQuote(FRESH_FEE)).when(shippingQuoteCache).getQuote(any());
+        clearInvocations(shippingQuoteCache);
+        return quote.getQuoteToken();
+    }
+
+    private static CheckoutRequest request(Long cartId, String destinationCity) {
+        return CheckoutRequest.builder()
+                .cartId(cartId)
+                .shippingAddress("Jl. Test No. 1")
+                .guestEmail("guest@example.com")
+                .guestName("Guest")
+                .originCity("Jakarta")
+                .destinationCity(destinationCity)
+                .weightInKg(1.0)
+                .bypassPayment(true)
+                .build();
+    }
+
+    private static CheckoutRequest withToken(CheckoutRequest request, String token) {
+        request.setQuoteToken(token);
+        return request;
+    }
+
+    private static Order order(Money shippingFee) {
+        Order order = Order.builder().id("ORDER-1").status(OrderStatus.CREATED).build();
+        order.setShippingFee(shippingFee);
+        order.calculateTotals();
+        return order;
+    }
+
+    private static ShippingQuoteResponse shippingQuote(Money price) {
+        return ShippingQuoteResponse.builder().success(true).price(price).build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.loopins.core.service;
+
+import com.loopins.core.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotSkuLanesTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private HotSkuLanes hotSkuLanes;
+
+    @BeforeEach
+    void setUp() {
+        hotSkuLanes = new HotSkuLanes(productRepository, jdbcTemplate, new SimpleMeterRegistry(),
+                10, 0.5, 100, Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotSkuLanes.shutdown();
+    }
+
+    @Test
+    void tryReserve_WithoutLane_ShouldUseRegularPath() {
+        assertThat(hotSkuLanes.isHot("PROD-A")).isFalse();
+        assertThat(hotSkuLanes.tryReserve("PROD-A", 1)).isEqualTo(HotSkuLanes.Grant.REGULAR);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void tryReserve_ShouldClaimStockInBlocksAndGrantFromAllotment() {
+        stock("PROD-HOT", 25);
+        when(jdbcTemplate.update(contains("stock - ?"), eq(10), eq("PROD-HOT"), eq(10))).thenReturn(1);
+        hotSkuLanes.open("PROD-HOT");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(hotSkuLanes.tryReserve("PROD-HOT", 1)).isEqualTo(HotSkuLanes.Grant.GRANTED);
+        }
+
+        // Ten grants, one claim of a block of ten
+        verify(jdbcTemplate, times(1)).update(contains("stock - ?"), eq(10), eq("PROD-HOT"), eq(10));
+    }
+
+    @Test
+    void tryReserve_WhenStockIsLow_ShouldClaimOnlyAShareOfIt() {
+        stock("PROD-HOT", 8);
+        when(jdbcTemplate.update(contains("stock - ?"), eq(4), eq("PROD-HOT"), eq(4))).thenReturn(1);
+        hotSkuLanes.open("PROD-HOT");
+
+        assertThat(hotSkuLanes.tryReserve("PROD-HOT", 1)).isEqualTo(HotSkuLanes.Grant.GRANTED);
+
+        // Half of the 8 left, not a whole block of 10, so other instances' lanes can still claim
+        verify(jdbcTemplate).update(contains("stock - ?"), eq(4), eq("PROD-HOT"), eq(4));
+    }
+
+    @Test
+    void tryReserve_WhenShareIsSmallerThanRequest_ShouldClaimTheRequestedQuantity() {
+        stock("PROD-HOT", 5);
+        when(jdbcTemplate.update(contains("stock - ?"), eq(4), eq("PROD-HOT"), eq(4))).thenReturn(1);
+        hotSkuLanes.open("PROD-HOT");
+
+        assertThat(hotSkuLanes.tryReserve("PROD-HOT", 4)).isEqualTo(HotSkuLanes.Grant.GRANTED);
+    }
+
+    @Test
+    void tryReserve_WhenLaneCannotCover_ShouldFallBackWithoutRetryingDatabaseDuringBackoff() {
+        stock("PROD-HOT", 0);
+        hotSkuLanes.open("PROD-HOT");
+
+        assertThat(hotSkuLanes.tryReserve("PROD-HOT", 1)).isEqualTo(HotSkuLanes.Grant.REGULAR);
+        assertThat(hotSkuLanes.tryReserve("PROD-HOT", 1)).isEqualTo(HotSkuLanes.Grant.REGULAR);
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class), eq("PROD-HOT"));
+        verify(jdbcTemplate, never()).update(contains("stock - ?"), anyInt(), anyString(), anyInt());
+    }
+
+    @Test
+    void close_ShouldReturnUnusedAllotmentAndFallBackToRegularPath() throws Exception {
+        stock("PROD-HOT", 25);
+        when(jdbcTemplate.update(contains("stock - ?"), eq(10), eq("PROD-HOT"), eq(10))).thenReturn(1);
+        hotSkuLanes.open("PROD-HOT");
+        hotSkuLanes.tryReserve("PROD-HOT", 3);
+
+        hotSkuLanes.close("PROD-HOT");
+
+        verify(jdbcTemplate, timeout(5000)).update(contains("stock + ?"), eq(7), eq("PROD-HOT"));
+        assertThat(hotSkuLanes.tryReserve("PROD-HOT", 1)).isEqualTo(HotSkuLanes.Grant.REGULAR);
+    }
+
+    @Test
+    void shutdown_ShouldWaitUntilUnusedAllotmentIsReturned() {
+        stock("PROD-HOT", 25);
+        when(jdbcTemplate.update(contains("stock - ?"), eq(10), eq("PROD-HOT"), eq(10))).thenReturn(1);
+        hotSkuLanes.open("PROD-HOT");
+        hotSkuLanes.tryReserve("PROD-HOT", 3);
+
+        hotSkuLanes.shutdown();
+
+        // No timeout: the return must already have happened when shutdown returns
+        verify(jdbcTemplate).update(contains("stock + ?"), eq(7), eq("PROD-HOT"));
+    }
+
+    @Test
+    void syncLanes_ShouldFollowHotFlags() {
+        when(productRepository.findHotProductIds()).thenReturn(List.of("PROD-HOT"));
+        hotSkuLanes.syncLanes();
+        assertThat(hotSkuLanes.isHot("PROD-HOT")).isTrue();
+
+        when(productRepository.findHotProductIds()).thenReturn(List.of());
+        hotSkuLanes.syncLanes();
+        assertThat(hotSkuLanes.isHot("PROD-HOT")).isFalse();
+    }
+
+    private void stock(String productId, int stock) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(productId))).thenReturn(stock);
+    }
+}
@@ -0,0 +1,95 @@
+package com.loopins.core.service;
+
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.dto.request.BatchCartItemRequest;
+import com.loopins.core.dto.request.CheckoutRequest;
+import com.loopins.core.dto.request.CreateCartRequest;
+import com.loopins.core.dto.request.CreateProductRequest;
+import com.loopins.core.dto.response.CartResponse;
+import com.loopins.core.dto.response.CheckoutResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cart and order lines are inserted in JDBC batches rather than one statement per row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InsertBatchingTest {
+
+    private static final int LINES = 30;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void addingManyLinesAndCheckingOut_ShouldUseFewerStatementsThanLines() {
+        String prefix = "PROD-BATCH-" + System.nanoTime() + "-";
+        List<BatchCartItemRequest.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            productService.createProduct(CreateProductRequest.builder()
+                    .id(prefix + i)
+                    .name("Batch Product " + i)
+                    .price(new BigDecimal("1000"))
+                    .stock(10)
+                    .build());
+            operations.add(BatchCartItemRequest.Operation.builder()
+                    .type(BatchCartItemRequest.OperationType.ADD)
+                    .productId(prefix + i)
+                    .quantity(1)
+                    .build());
+        }
+        CartResponse cart = cartService.createCart(CreateCartRequest.builder().sessionId(prefix).build());
+
+        statistics.clear();
+        cartService.applyBatch(cart.getId(), BatchCartItemRequest.builder().operations(operations).build());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(LINES / 3);
+
+        statistics.clear();
+        CheckoutResponse response = checkoutService.checkout(CheckoutRequest.builder()
+                .cartId(cart.getId())
+                .shippingAddress("Jl. Test No. 1")
+                .guestEmail("guest@example.com")
+                .guestName("Guest")
+                .bypassShipping(true)
+                .bypassPayment(true)
+                .build());
+        assertThat(response.getStatus()).isEqualTo("CREATED");
+        // Order, its lines and the stock reservations
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + LINES + LINES);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(LINES);
+    }
+}
@@ -0,0 +1,119 @@
+package com.loopins.core.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    private String orderId;
+
+    @BeforeEach
+    void setUp() {
+        Order order = Order.builder()
+                .guestEmail("finance@example.com")
+                .guestName("Finance, Inc.")
+                .shippingAddress("Jl. Export No. 1")
+                .status(OrderStatus.CREATED)
+                .build();
+        order.addItem(OrderItem.builder().productId("PROD-A").productName("Kopi \"Gayo\", 250g")
+                .unitPrice(Money.of(50000)).quantity(2).build());
+        order.addItem(OrderItem.builder().productId("PROD-B").productName("Teh")
+                .unitPrice(Money.of(20000)).quantity(1).build());
+        order.calculateTotals();
+        orderId = orderRepository.save(order).getId();
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneLinePerOrderWithItems() {
+        List<String> lines = export(OrderExportService.Format.NDJSON);
+
+        JsonNode exported = lines.stream()
+                .map(this::readTree)
+                .filter(node -> node.get("id").asText().equals(orderId))
+                .findFirst()
+                .orElseThrow();
+        assertThat(exported.get("status").asText()).isEqualTo("CREATED");
+        assertThat(exported.get("totalAmount").decimalValue()).isEqualByComparingTo("120000");
+        assertThat(exported.get("items")).hasSize(2);
+    }
+
+    @Test
+    void exportCsv_ShouldWriteOneQuotedRowPerItem() {
+        List<String> lines = export(OrderExportService.Format.CSV);
+
+        assertThat(lines.get(0)).startsWith("order_id,");
+        assertThat(lines).filteredOn(line -> line.startsWith(orderId + ",")).hasSize(2)
+                .anySatisfy(line -> assertThat(line).contains(",PROD-A,\"Kopi \"\"Gayo\"\", 250g\",50000.00,2"));
+    }
+
+    @Test
+    void export_ShouldApplyStatusFilter() {
+        List<String> lines = exportFiltered(OrderStatus.PAID);
+
+        assertThat(lines).noneMatch(line -> line.startsWith(orderId + ","));
+    }
+
+    @Test
+    void parseFormat_ShouldIgnoreCaseAndRejectUnknownFormats() {
+        assertThat(OrderExportService.Format.parse("csv")).isEqualTo(OrderExportService.Format.CSV);
+        assertThat(OrderExportService.Format.parse("NdJson")).isEqualTo(OrderExportService.Format.NDJSON);
+        assertThatThrownBy(() -> OrderExportService.Format.parse("xlsx"))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private List<String> export(OrderExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(format, LocalDate.now().minusDays(1), LocalDate.now(), null, out);
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private List<String> exportFiltered(OrderStatus status) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(OrderExportService.Format.CSV, null, null, status, out);
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.loopins.core.service;
+
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.entity.Product;
+import com.loopins.core.domain.entity.StockReservation;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.dto.request.PaymentConfirmationRequest;
+import com.loopins.core.dto.response.OrderResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.exception.DuplicateRequestException;
+import com.loopins.core.exception.ResourceNotFoundException;
+import com.loopins.core.repository.OrderRepository;
+import com.loopins.core.repository.ProductRepository;
+import com.loopins.core.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Order status transitions are conditional updates: they succeed only from an allowed status,
+ * and a transition that lost a race reports the status the order is actually in.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStatusTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderPlacementService orderPlacementService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    @Test
+    void confirmShipAndComplete_ShouldFollowStateMachine() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "PAY-REF-1");
+
+        OrderResponse paid = orderService.confirmPayment(orderId, confirmation("PAY-REF-1"));
+        assertThat(paid.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(paid.getPaidAt()).isNotNull();
+        assertThat(paid.getItems()).hasSize(1);
+
+        OrderResponse shipped = orderService.markAsShipped(orderId);
+        assertThat(shipped.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(shipped.getShippedAt()).isNotNull();
+
+        OrderResponse completed = orderService.markAsCompleted(orderId);
+        assertThat(completed.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(completed.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void cancelOrder_ShouldSucceedOnlyOnce() {
+        String orderId = saveOrder(OrderStatus.CREATED, null);
+
+        assertThat(orderService.cancelOrder(orderId).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThatThrownBy(() -> orderService.cancelOrder(orderId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Current status: CANCELLED");
+    }
+
+    @Test
+    void markAsShipped_ShouldRejectUnpaidOrder() {
+        String orderId = saveOrder(OrderStatus.CREATED, null);
+
+        assertThatThrownBy(() -> orderService.markAsShipped(orderId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Current status: CREATED");
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.CREATED);
+    }
+
+    @Test
+    void confirmPayment_ShouldRejectReferenceMismatch() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "PAY-REF-2");
+
+        assertThatThrownBy(() -> orderService.confirmPayment(orderId, confirmation("OTHER-REF")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Payment reference mismatch");
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PAYMENT_PENDING);
+    }
+
+    @Test
+    void settlementNotification_ShouldMarkPendingOrderPaid() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "SNAP-TOKEN-1");
+
+        paymentService.handlePaymentNotification(notification(orderId, "settlement"));
+
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PAID);
+    }
+
+    @Test
+    void settlementNotification_ShouldNotOverwriteCancelledOrder() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "SNAP-TOKEN-2");
+        orderService.cancelOrder(orderId);
+
+        paymentService.handlePaymentNotification(notification(orderId, "settlement"));
+
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void expireNotification_ShouldNotCancelPaidOrder() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "SNAP-TOKEN-3");
+        paymentService.handlePaymentNotification(notification(orderId, "settlement"));
+
+        paymentService.handlePaymentNotification(notification(orderId, "expire"));
+
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PAID);
+    }
+
+    @Test
+    void repeatedNotification_ShouldBeRejectedAsDuplicate() {
+        String orderId = saveOrder(OrderStatus.PAYMENT_PENDING, "SNAP-TOKEN-4");
+        paymentService.handlePaymentNotification(notification(orderId, "settlement"));
+
+        assertThatThrownBy(() -> paymentService.handlePaymentNotification(notification(orderId, "settlement")))
+                .isInstanceOf(DuplicateRequestException.class);
+    }
+
+    @Test
+    void releaseExpiredHolds_ShouldReturnStockAndMoveStrandedDraftToCreated() {
+        String productId = "PROD-SWEEP-" + System.nanoTime();
+        productRepository.save(Product.builder().id(productId).name("Sweep").price(Money.of(1000)).stock(3)
+                .active(true).createdAt(LocalDateTime.now()).build());
+        String draftId = saveOrder(OrderStatus.DRAFT, null);
+        String pendingId = saveOrder(OrderStatus.PAYMENT_PENDING, "SNAP-TOKEN-5");
+        LocalDateTime now = LocalDateTime.now();
+        for (String orderId : List.of(draftId, pendingId)) {
+            reservationRepository.save(StockReservation.builder()
+                    .orderId(orderId).productId(productId).quantity(1).expiresAt(now.minusMinutes(1)).build());
+        }
+
+        assertThat(orderPlacementService.releaseExpiredHolds(List.of(draftId, pendingId), now)).isEqualTo(2);
+
+        assertThat(orderRepository.findStatusById(draftId)).contains(OrderStatus.CREATED);
+        assertThat(orderRepository.findStatusById(pendingId)).contains(OrderStatus.PAYMENT_PENDING);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(5);
+        assertThat(orderService.cancelOrder(draftId).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void transition_ShouldReportMissingOrder() {
+        assertThatThrownBy(() -> orderService.markAsCompleted("ORDER-MISSING"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private String saveOrder(OrderStatus status, String paymentReference) {
+        Order order = Order.builder()
+                .guestEmail("guest@example.com")
+                .guestName("Guest")
+                .shippingAddress("Jl. Test No. 1")
+                .status(status)
+                .paymentReference(paymentReference)
+                .build();
+        order.addItem(OrderItem.builder()
+                .productId("PROD-1")
+                .productName("Product 1")
+                .unitPrice(Money.of(1000))
+                .quantity(1)
+                .build());
+        order.calculateTotals();
+        return orderRepository.save(order).getId();
+    }
+
+    private static PaymentConfirmationRequest confirmation(String paymentReference) {
+        return PaymentConfirmationRequest.builder()
+                .paymentReference(paymentReference)
+                .callbackReference("CB-" + System.nanoTime())
+                .build();
+    }
+
+    private static Map<String, Object> notification(String orderId, String transactionStatus) {
+        return Map.of(
+                "order_id", orderId,
+                "transaction_status", transactionStatus,
+                "transaction_id", "TX-" + orderId);
+    }
+}
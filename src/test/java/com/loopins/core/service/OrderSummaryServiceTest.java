@@ -0,0 +1,168 @@
+package com.loopins.core.service;
+
+import com.loopins.core.client.FulfillmentClient;
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.entity.User;
+import com.loopins.core.domain.enums.OrderStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.dto.response.CursorPage;
+import com.loopins.core.dto.response.OrderSummaryResponse;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.repository.OrderRepository;
+import com.loopins.core.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Order list views read the order_summary projection: walking a user's history with cursors returns
+ * every order exactly once, newest first, each page costs one statement whatever its size,
+ * and state changes made by the order services show up in the projection.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderSummaryServiceTest {
+
+    private static final int ORDERS = 25;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private FulfillmentClient fulfillmentClient;
+
+    private final List<String> orderIds = new ArrayList<>();
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        String name = "history-" + System.nanoTime();
+        user = userRepository.save(User.builder().username(name).email(name + "@example.com").build());
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .user(user)
+                    .shippingAddress("Jl. Test No. " + i)
+                    .status(OrderStatus.CREATED)
+                    .build();
+            for (int line = 0; line < 2; line++) {
+                order.addItem(OrderItem.builder()
+                        .productId("PROD-" + line)
+                        .productName("Product " + line)
+                        .unitPrice(Money.of(1000))
+                        .quantity(1)
+                        .build());
+            }
+            order.calculateTotals();
+            orderIds.add(orderRepository.save(order).getId());
+        }
+        // Orders saved straight through the repository are projected here, as the order services would
+        transactionTemplate.executeWithoutResult(status -> orderIds.forEach(orderId ->
+                orderSummaryProjector.project(orderRepository.findByIdWithItems(orderId).orElseThrow())));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldWalkAllPagesNewestFirst() {
+        List<OrderSummaryResponse> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderSummaryResponse> page = orderSummaryService.getOrdersByUserId(user.getId(), cursor, 10);
+            seen.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        assertThat(seen).extracting(OrderSummaryResponse::getOrderId).doesNotHaveDuplicates().hasSize(ORDERS);
+        assertThat(seen).allSatisfy(summary -> assertThat(summary.getItemCount()).isEqualTo(2));
+        for (int i = 1; i < seen.size(); i++) {
+            assertThat(seen.get(i).getCreatedAt()).isBeforeOrEqualTo(seen.get(i - 1).getCreatedAt());
+        }
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldTakeOneStatementWhateverThePageSize() {
+        statistics.clear();
+        assertThat(orderSummaryService.getOrdersByUserId(user.getId(), null, 5).getItems()).hasSize(5);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(orderSummaryService.getOrdersByUserId(user.getId(), null, 20).getItems()).hasSize(20);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallPageStatements).isEqualTo(1);
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    void cancelOrder_ShouldUpdateSummaryInSameTransaction() {
+        String orderId = orderSummaryService.getOrdersByUserId(user.getId(), null, 1).getItems().get(0).getOrderId();
+
+        orderService.cancelOrder(orderId);
+
+        OrderSummaryResponse summary = orderSummaryService.getOrdersByUserId(user.getId(), null, 1).getItems().get(0);
+        assertThat(summary.getOrderId()).isEqualTo(orderId);
+        assertThat(summary.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void rebuildRange_ShouldWriteTheSameRowsAsTheIncrementalProjection() {
+        orderService.cancelOrder(orderIds.get(0));
+        List<Map<String, Object>> projected = summaries();
+
+        orderSummaryProjector.rebuildRange(Collections.min(orderIds), Collections.max(orderIds));
+
+        assertThat(summaries()).isEqualTo(projected);
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> orderSummaryService.getOrdersByUserId(user.getId(), "not a cursor", 10))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private List<Map<String, Object>> summaries() {
+        return jdbcTemplate.queryForList(
+                "SELECT * FROM order_summary WHERE user_id = ? ORDER BY order_id", user.getId());
+    }
+}
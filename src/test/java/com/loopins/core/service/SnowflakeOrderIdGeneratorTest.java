@@ -0,0 +1,106 @@
+package com.loopins.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderIdGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    void nextId_ShouldKeepPrefixAndFitOrdersIdColumn() {
+        String id = new SnowflakeOrderIdGenerator(1).nextId();
+
+        assertThat(id).startsWith("ORDER-").hasSize(19);
+        assertThat(id.substring(6)).matches("[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void nextId_ShouldIncreaseWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7, clock::get);
+
+        String first = generator.nextId();
+        String second = generator.nextId();
+        clock.addAndGet(1);
+        String third = generator.nextId();
+
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+    }
+
+    @Test
+    void nextId_WhenClockStepsBack_ShouldStillIncrease() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7, clock::get);
+
+        String before = generator.nextId();
+        clock.addAndGet(-1_000);
+        String after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void nextId_WhenSequenceIsExhausted_ShouldRunAheadInsteadOfRepeating() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7, () -> NOW);
+
+        long previous = generator.nextLong();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextLong();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_ShouldEncodeNodeIdSoNodesNeverCollide() {
+        long a = new SnowflakeOrderIdGenerator(1, () -> NOW).nextLong();
+        long b = new SnowflakeOrderIdGenerator(2, () -> NOW).nextLong();
+
+        assertThat(a).isNotEqualTo(b);
+        assertThat((a >>> 12) & 1023).isEqualTo(1);
+        assertThat((b >>> 12) & 1023).isEqualTo(2);
+    }
+
+    @Test
+    void nextId_ShouldBeUniqueAcrossThreads() throws Exception {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(3);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(40_000);
+    }
+
+    @Test
+    void constructor_ShouldRejectNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeOrderIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,215 @@
+package com.loopins.core.service;
+
+import com.loopins.core.domain.entity.Order;
+import com.loopins.core.domain.entity.OrderItem;
+import com.loopins.core.domain.entity.StockReservation;
+import com.loopins.core.domain.enums.ReservationStatus;
+import com.loopins.core.domain.value.Money;
+import com.loopins.core.exception.BusinessException;
+import com.loopins.core.repository.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HotSkuLanes hotSkuLanes;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(reservationRepository, jdbcTemplate,
+                hotSkuLanes, new SimpleMeterRegistry(), Duration.ofMinutes(30));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserve_ShouldBatchOneConditionalUpdatePerProductInIdOrder() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<StockReservation> reservations = stockReservationService.reserve(
+                order(item("PROD-B", 1), item("PROD-A", 2), item("PROD-B", 3)));
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("stock >= ?"), batch.capture());
+        assertThat(batch.getValue()).containsExactly(
+                new Object[]{2, "PROD-A", 2},
+                new Object[]{4, "PROD-B", 4});
+        assertThat(reservations).extracting(StockReservation::getProductId).containsExactly("PROD-A", "PROD-B");
+        assertThat(reservations).allMatch(StockReservation::isHeld);
+        assertThat(reservations).allMatch(r -> r.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void reserve_WhenAnyProductIsShort_ShouldRejectWithoutSavingHolds() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        assertThatThrownBy(() -> stockReservationService.reserve(order(item("PROD-A", 1), item("PROD-B", 5))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("PROD-B");
+
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserve_ShouldGrantHotProductsFromTheirLaneAndOthersWithSql() {
+        when(hotSkuLanes.isHot("PROD-HOT")).thenReturn(true);
+        when(hotSkuLanes.tryReserve("PROD-HOT", 1)).thenReturn(HotSkuLanes.Grant.GRANTED);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<StockReservation> reservations = stockReservationService.reserve(
+                order(item("PROD-HOT", 1), item("PROD-A", 2)));
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertThat(batch.getValue()).containsExactly(new Object[]{2, "PROD-A", 2});
+        assertThat(reservations).extracting(StockReservation::getProductId).containsExactly("PROD-A", "PROD-HOT");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserve_WhenHotLaneCannotCover_ShouldReserveWithSql() {
+        when(hotSkuLanes.isHot("PROD-HOT")).thenReturn(true);
+        when(hotSkuLanes.tryReserve("PROD-HOT", 1)).thenReturn(HotSkuLanes.Grant.REGULAR);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        stockReservationService.reserve(order(item("PROD-A", 2), item("PROD-HOT", 1)));
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("stock >= ?"), batch.capture());
+        assertThat(batch.getValue()).containsExactly(
+                new Object[]{2, "PROD-A", 2},
+                new Object[]{1, "PROD-HOT", 1});
+    }
+
+    @Test
+    void reserve_WhenTransactionRollsBack_ShouldCreditHotLaneGrants() {
+        when(hotSkuLanes.isHot("PROD-HOT")).thenReturn(true);
+        when(hotSkuLanes.tryReserve("PROD-HOT", 1)).thenReturn(HotSkuLanes.Grant.GRANTED);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> stockReservationService.reserve(order(item("PROD-A", 5), item("PROD-HOT", 1))))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("PROD-A");
+            verify(hotSkuLanes, never()).credit(anyString(), anyInt());
+
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(hotSkuLanes).credit("PROD-HOT", 1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_WhenTransactionCommits_ShouldKeepHotLaneGrants() {
+        when(hotSkuLanes.isHot("PROD-HOT")).thenReturn(true);
+        when(hotSkuLanes.tryReserve("PROD-HOT", 1)).thenReturn(HotSkuLanes.Grant.GRANTED);
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockReservationService.reserve(order(item("PROD-HOT", 1)));
+
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+            verify(hotSkuLanes, never()).credit(anyString(), anyInt());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void release_ShouldRestoreOnlyHeldReservations() {
+        StockReservation held = reservation("PROD-A", 2, ReservationStatus.HELD);
+        StockReservation consumed = reservation("PROD-B", 1, ReservationStatus.CONSUMED);
+        when(reservationRepository.lockByOrderId("ORDER-1")).thenReturn(List.of(held, consumed));
+
+        stockReservationService.release("ORDER-1");
+
+        verify(jdbcTemplate).batchUpdate(contains("stock + ?"), argThat((List<Object[]> batch) ->
+                batch.size() == 1 && batch.get(0)[0].equals(2) && batch.get(0)[1].equals("PROD-A")));
+        assertThat(held.getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(consumed.getStatus()).isEqualTo(ReservationStatus.CONSUMED);
+    }
+
+    @Test
+    void consume_WhenHoldWasReleased_ShouldTakeStockBackIfAvailable() {
+        StockReservation released = reservation("PROD-A", 2, ReservationStatus.RELEASED);
+        StockReservation gone = reservation("PROD-B", 1, ReservationStatus.RELEASED);
+        StockReservation held = reservation("PROD-C", 1, ReservationStatus.HELD);
+        when(reservationRepository.lockByOrderId("ORDER-1")).thenReturn(List.of(released, gone, held));
+        when(jdbcTemplate.update(anyString(), eq(2), eq("PROD-A"), eq(2))).thenReturn(1);
+        when(jdbcTemplate.update(anyString(), eq(1), eq("PROD-B"), eq(1))).thenReturn(0);
+
+        stockReservationService.consume("ORDER-1");
+
+        assertThat(released.getStatus()).isEqualTo(ReservationStatus.CONSUMED);
+        assertThat(gone.getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(held.getStatus()).isEqualTo(ReservationStatus.CONSUMED);
+        verify(jdbcTemplate, never()).update(anyString(), eq(1), eq("PROD-C"), eq(1));
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Order order(OrderItem... items) {
+        Order order = Order.builder().id("ORDER-1").build();
+        for (OrderItem item : items) {
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    private static OrderItem item(String productId, int quantity) {
+        return OrderItem.builder()
+                .productId(productId)
+                .productName(productId)
+                .unitPrice(Money.of(10000))
+                .quantity(quantity)
+                .build();
+    }
+
+    private static StockReservation reservation(String productId, int quantity, ReservationStatus status) {
+        return StockReservation.builder()
+                .orderId("ORDER-1")
+                .productId(productId)
+                .quantity(quantity)
+                .status(status)
+                .expiresAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.loopins.core.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, 1000);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void release_WhenFastAndBusy_ShouldIncreaseLimitByOne() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, 1000);
+        limit.tryAcquire();
+
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void release_WhenSlowOrFailed_ShouldBackOffButNotBelowMinimum() {
+        AimdLimit limit = new AimdLimit(8, 3, 10, 0.5, 1000);
+
+        limit.acquire();
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        limit.acquire();
+        limit.release(FAST, true);
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void release_WhenMostlyIdle_ShouldKeepLimit() {
+        AimdLimit limit = new AimdLimit(10, 1, 20, 0.5, 1000);
+        limit.tryAcquire();
+
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,77 @@
+package com.loopins.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("concurrency-limit.groups.checkout.initial-limit", "1")
+                .withProperty("concurrency-limit.groups.checkout.min-limit", "1")
+                .withProperty("concurrency-limit.groups.checkout.max-limit", "1");
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), new SimpleMeterRegistry(), environment,
+                Duration.ofSeconds(1));
+    }
+
+    @Test
+    void checkoutGroup_WhenFull_ShouldShedCheckoutsButNotTicketPollsOrQuotes() throws Exception {
+        AtomicReference<MockHttpServletResponse> secondCheckout = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> poll = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> quote = new AtomicReference<>();
+        FilterChain holdingSlot = (request, response) -> {
+            secondCheckout.set(run("POST", "/api/orders/checkout"));
+            poll.set(run("GET", "/api/orders/checkout/ticket-1"));
+            quote.set(run("POST", "/api/orders/checkout/quote"));
+        };
+
+        filter.doFilter(request("POST", "/api/orders/checkout"), new MockHttpServletResponse(), holdingSlot);
+
+        assertThat(secondCheckout.get().getStatus()).isEqualTo(503);
+        assertThat(secondCheckout.get().getHeader("Retry-After")).isEqualTo("1");
+        assertThat(poll.get().getStatus()).isEqualTo(200);
+        assertThat(quote.get().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void checkoutGroup_ShouldCoverAsyncSubmitRetryPaymentAndSnap() throws Exception {
+        FilterChain holdingSlot = (request, response) -> {
+            assertThat(run("POST", "/api/orders/checkout/async").getStatus()).isEqualTo(503);
+            assertThat(run("POST", "/api/orders/ORDER-1/retry-payment").getStatus()).isEqualTo(503);
+            assertThat(run("POST", "/api/payments/snap/ORDER-1").getStatus()).isEqualTo(503);
+        };
+
+        filter.doFilter(request("POST", "/api/orders/checkout"), new MockHttpServletResponse(), holdingSlot);
+    }
+
+    private MockHttpServletResponse run(String method, String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(method, uri), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath("/api");
+        return request;
+    }
+}
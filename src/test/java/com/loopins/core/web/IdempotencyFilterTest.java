@@ -0,0 +1,250 @@
+package com.loopins.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.loopins.core.cache.IdempotencyStore;
+import com.loopins.core.cache.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"cartId\":1}";
+
+    @Mock
+    private IdempotencyStore store;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(store, new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry(), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void firstRequest_ShouldExecuteAndStoreResponse() throws Exception {
+        when(store.find(anyString())).thenReturn(Optional.empty());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(checkoutRequest("key-1", BODY), response, respondWith(201, "{\"success\":true}"));
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"success\":true}");
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(store).save(eq("POST /orders/checkout key-1"), stored.capture());
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(new String(stored.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("{\"success\":true}");
+    }
+
+    @Test
+    void repeatedRequest_ShouldReplayStoredResponseWithoutExecuting() throws Exception {
+        StoredResponse first = execute("key-2", 201, "{\"orderId\":\"ORDER-1\"}");
+        when(store.find("POST /orders/checkout key-2")).thenReturn(Optional.of(first));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(checkoutRequest("key-2", BODY), response, chain);
+
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"orderId\":\"ORDER-1\"}");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void repeatedAsyncCheckout_ShouldReplayTicketLocation() throws Exception {
+        String location = "http://localhost/api/orders/checkout/ticket-1";
+        when(store.find("POST /orders/checkout/async key-7")).thenReturn(Optional.empty());
+        FilterChain accepted = (request, response) -> {
+            ((HttpServletResponse) response).setStatus(202);
+            ((HttpServletResponse) response).setHeader("Location", location);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"ticketId\":\"ticket-1\"}");
+        };
+        filter.doFilter(request("/api/orders/checkout/async", "key-7", BODY), new MockHttpServletResponse(), accepted);
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(store).save(eq("POST /orders/checkout/async key-7"), stored.capture());
+        when(store.find("POST /orders/checkout/async key-7")).thenReturn(Optional.of(stored.getValue()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/api/orders/checkout/async", "key-7", BODY), response, mock(FilterChain.class));
+
+        assertThat(response.getStatus()).isEqualTo(202);
+        assertThat(response.getHeader("Location")).isEqualTo(location);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void repeatedRequest_WithDifferentBody_ShouldBeRejected() throws Exception {
+        StoredResponse first = execute("key-3", 201, "{}");
+        when(store.find("POST /orders/checkout key-3")).thenReturn(Optional.of(first));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(checkoutRequest("key-3", "{\"cartId\":2}"), response, mock(FilterChain.class));
+
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void failedResponse_ShouldNotBeStored() throws Exception {
+        when(store.find(anyString())).thenReturn(Optional.empty());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(checkoutRequest("key-4", BODY), response, respondWith(503, "{\"success\":false}"));
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        verify(store, never()).save(anyString(), any());
+    }
+
+    @Test
+    void concurrentDuplicates_ShouldShareOneExecution() throws Exception {
+        when(store.find(anyString())).thenReturn(Optional.empty());
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain slowChain = (request, response) -> {
+            executions.incrementAndGet();
+            executing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            ((HttpServletResponse) response).setStatus(201);
+            response.getWriter().write("{\"orderId\":\"ORDER-1\"}");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+            MockHttpServletResponse duplicateResponse = new MockHttpServletResponse();
+            Future<?> first = executor.submit(() -> {
+                filter.doFilter(checkoutRequest("key-5", BODY), firstResponse, slowChain);
+                return null;
+            });
+            assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> duplicate = executor.submit(() -> {
+                filter.doFilter(checkoutRequest("key-5", BODY), duplicateResponse, slowChain);
+                return null;
+            });
+            Thread.sleep(100);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            duplicate.get(5, TimeUnit.SECONDS);
+
+            assertThat(executions).hasValue(1);
+            assertThat(duplicateResponse.getStatus()).isEqualTo(201);
+            assertThat(duplicateResponse.getContentAsString()).isEqualTo(firstResponse.getContentAsString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cachedBody_ShouldBeReadableThroughReadListener() throws Exception {
+        when(store.find(anyString())).thenReturn(Optional.empty());
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicInteger allDataRead = new AtomicInteger();
+        FilterChain nonBlockingChain = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (in.isReady() && !in.isFinished()) {
+                        int n = in.read(buffer);
+                        if (n > 0) {
+                            read.write(buffer, 0, n);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        filter.doFilter(checkoutRequest("key-6", BODY), new MockHttpServletResponse(), nonBlockingChain);
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(allDataRead).hasValue(1);
+    }
+
+    @Test
+    void requestWithoutKey_ShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = checkoutRequest(null, BODY);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verifyNoInteractions(store);
+    }
+
+    private StoredResponse execute(String key, int status, String body) throws Exception {
+        when(store.find("POST /orders/checkout " + key)).thenReturn(Optional.empty());
+        filter.doFilter(checkoutRequest(key, BODY), new MockHttpServletResponse(), respondWith(status, body));
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(store).save(eq("POST /orders/checkout " + key), stored.capture());
+        return stored.getValue();
+    }
+
+    private static MockHttpServletRequest checkoutRequest(String key, String body) {
+        return request("/api/orders/checkout", key, body);
+    }
+
+    private static MockHttpServletRequest request(String uri, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContextPath("/api");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return request;
+    }
+
+    private static FilterChain respondWith(int status, String body) {
+        return (request, response) -> {
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getWriter().write(body);
+        };
+    }
+}